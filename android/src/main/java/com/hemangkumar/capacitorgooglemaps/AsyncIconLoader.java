@@ -1,5 +1,6 @@
 package com.hemangkumar.capacitorgooglemaps;
 
+import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Picture;
@@ -16,25 +17,75 @@ import com.bumptech.glide.Glide;
 import com.bumptech.glide.RequestBuilder;
 import com.bumptech.glide.request.target.CustomTarget;
 import com.bumptech.glide.request.transition.Transition;
+import com.bumptech.glide.signature.ObjectKey;
 import com.caverock.androidsvg.SVG;
 import com.caverock.androidsvg.SVGParseException;
 import com.getcapacitor.JSObject;
+import com.google.android.libraries.maps.model.BitmapDescriptor;
+import com.google.android.libraries.maps.model.BitmapDescriptorFactory;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 class AsyncIconLoader {
 
     private static final int PICTURE_DOWNLOAD_TIMEOUT = 3000;
-    private static final int FAST_CACHE_SIZE_ENTRIES = 32;
+    private static final int MAX_CACHE_SIZE_BYTES = 32 * 1024 * 1024;
 
-    private static final LruCache<String, Bitmap> bitmapCache = new LruCache<>(FAST_CACHE_SIZE_ENTRIES);
+    /**
+     * Icons that are ready to be used by markers, shared by all maps.
+     * Since many markers tend to use the same few icons, every icon is only decoded and
+     * converted into a BitmapDescriptor once, instead of once per marker.
+     * The size of the cache is measured in bytes of the underlying bitmaps.
+     */
+    private static final LruCache<String, CachedIcon> iconCache = new LruCache<String, CachedIcon>(
+            (int) Math.min(Runtime.getRuntime().maxMemory() / 16, MAX_CACHE_SIZE_BYTES)) {
+        @Override
+        protected int sizeOf(String key, CachedIcon cachedIcon) {
+            return cachedIcon.byteCount;
+        }
+    };
+
+    /**
+     * Loads that are in progress, by the same key as `iconCache`.
+     * When an icon is requested while it is already being loaded, the request waits for that load
+     * instead of starting another (identical) one. This way all markers sharing an icon are served
+     * by a single download and decode.
+     */
+    private static final HashMap<String, List<OnIconReady>> pendingLoads = new HashMap<>();
+
+    /**
+     * The thread on which icons are read from disk and rendered, shared by all maps.
+     * It is separate from the WorkerPool, so loading an icon never waits for (or blocks) clustering,
+     * shape simplification or tile rendering, and icons of different markers do not contend for disk I/O.
+     */
+    private static final ExecutorService iconExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "CapacitorGoogleMaps-icons");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    private static class CachedIcon {
+        final BitmapDescriptor bitmapDescriptor;
+        final int byteCount;
+
+        CachedIcon(BitmapDescriptor bitmapDescriptor, int byteCount) {
+            this.bitmapDescriptor = bitmapDescriptor;
+            this.byteCount = byteCount;
+        }
+    }
 
     public interface OnIconReady {
-        void onReady(@Nullable Bitmap bitmap);
+        void onReady(@Nullable BitmapDescriptor bitmapDescriptor);
     }
 
     private final IconDescriptor iconDescriptor;
@@ -51,16 +102,76 @@ class AsyncIconLoader {
             onIconReady.onReady(null);
             return;
         }
-        String url = iconDescriptor.url.toLowerCase(Locale.ROOT);
-        Bitmap cachedBitmap = bitmapCache.get(url);
-        if (cachedBitmap != null) {
-            onIconReady.onReady(cachedBitmap);
+        final String key = iconDescriptor.getKey();
+        CachedIcon cachedIcon = iconCache.get(key);
+        if (cachedIcon != null) {
+            onIconReady.onReady(cachedIcon.bitmapDescriptor);
+            return;
+        }
+
+        synchronized (pendingLoads) {
+            // check again, the icon might have been loaded in the meantime
+            cachedIcon = iconCache.get(key);
+            if (cachedIcon == null) {
+                List<OnIconReady> waiters = pendingLoads.get(key);
+                if (waiters != null) {
+                    // the same icon is being loaded already
+                    waiters.add(onIconReady);
+                    return;
+                }
+                waiters = new ArrayList<>();
+                waiters.add(onIconReady);
+                pendingLoads.put(key, waiters);
+            }
+        }
+        if (cachedIcon != null) {
+            onIconReady.onReady(cachedIcon.bitmapDescriptor);
             return;
         }
+
+        final OnIconReady onLoaded = (bitmapDescriptor) -> notifyWaiters(key, bitmapDescriptor);
+        String url = iconDescriptor.url.toLowerCase(Locale.ROOT);
         if (url.endsWith(".svg")) {
-            loadSvg(onIconReady);
+            loadSvg(onLoaded);
         } else {
-            loadBitmap(onIconReady);
+            loadBitmap(onLoaded);
+        }
+    }
+
+    /**
+     * Forgets all loaded icons, in memory as well as on disk, so every icon is loaded from its url again.
+     * Useful when icons have changed on the server, since icons are only keyed by url and size.
+     */
+    public static void clearCaches(@NonNull Context context) {
+        iconCache.evictAll();
+        final Context applicationContext = context.getApplicationContext();
+        final IconDiskCache diskCache = IconDiskCache.getInstance(applicationContext);
+        iconExecutor.execute(() -> {
+            diskCache.clear();
+            // Glide keeps the downloaded files of the icons in a disk cache of its own
+            Glide.get(applicationContext).clearDiskCache();
+        });
+    }
+
+    /**
+     * @return the size in bytes of the loaded icon, or 0 if it is not (or no longer) in the cache
+     */
+    public int getCachedByteCount() {
+        CachedIcon cachedIcon = iconCache.get(iconDescriptor.getKey());
+        return cachedIcon != null ? cachedIcon.byteCount : 0;
+    }
+
+    private static void notifyWaiters(String key, @Nullable BitmapDescriptor bitmapDescriptor) {
+        final List<OnIconReady> waiters;
+        synchronized (pendingLoads) {
+            waiters = pendingLoads.remove(key);
+        }
+        // every waiter should only be notified once, so a load that reports more than once
+        // does not notify the waiters of a later load of the same icon
+        if (waiters != null) {
+            for (OnIconReady waiter : waiters) {
+                waiter.onReady(bitmapDescriptor);
+            }
         }
     }
 
@@ -71,20 +182,26 @@ class AsyncIconLoader {
                 .timeout(PICTURE_DOWNLOAD_TIMEOUT);
         scaleImageOptional(builder).into(
                 new CustomTarget<Bitmap>() {
+                    private boolean isResourceReady = false;
+
                     // It will be called when the resource load has finished.
                     @Override
                     public void onResourceReady(
                             @NonNull Bitmap bitmap,
                             @Nullable Transition<? super Bitmap> transition) {
-                        bitmapCache.put(iconDescriptor.url, bitmap);
-                        onIconReady.onReady(bitmap);
+                        isResourceReady = true;
+                        onIconReady.onReady(cacheBitmap(bitmap));
                     }
 
                     // It is called when a loadAll is cancelled and its resources are freed.
                     @Override
                     public void onLoadCleared(@Nullable Drawable placeholder) {
-                        // Use default marker
-                        onIconReady.onReady(null);
+                        // the waiters have been served already, while a newer load of the same icon
+                        // might have registered waiters of its own in the meantime
+                        if (!isResourceReady) {
+                            // Use default marker
+                            onIconReady.onReady(null);
+                        }
                     }
 
                     // It is called when can't get image from network AND from a local cache.
@@ -98,27 +215,44 @@ class AsyncIconLoader {
     }
 
     private void loadSvg(final OnIconReady onIconReady) {
-        Glide.with(activity).downloadOnly().load(iconDescriptor.url).into(new CustomTarget<File>() {
+        final IconDiskCache diskCache = IconDiskCache.getInstance(activity);
+
+        iconExecutor.execute(() -> {
+            // icons that have been rendered before (possibly by a previous process)
+            // do not have to be downloaded, parsed and rendered again
+            final Bitmap cachedBitmap = diskCache.get(iconDescriptor.getKey());
+            if (cachedBitmap != null) {
+                activity.runOnUiThread(() -> onIconReady.onReady(cacheBitmap(cachedBitmap)));
+            } else {
+                final ObjectKey signature = getSvgSignature(diskCache.getGeneration());
+                activity.runOnUiThread(() -> downloadSvg(diskCache, signature, onIconReady));
+            }
+        });
+    }
+
+    private void downloadSvg(final IconDiskCache diskCache, final ObjectKey signature, final OnIconReady onIconReady) {
+        Glide.with(activity).downloadOnly().load(iconDescriptor.url).signature(signature).into(new CustomTarget<File>() {
+            private boolean isResourceReady = false;
+
             @Override
             public void onResourceReady(@NonNull File resource, @Nullable Transition<? super File> transition) {
-                try {
-                    try (InputStream inputStream = new FileInputStream(resource)) {
-                        SVG svg = SVG.getFromInputStream(inputStream);
-                        svg.setDocumentWidth(iconDescriptor.size.getWidth());
-                        svg.setDocumentHeight(iconDescriptor.size.getHeight());
-                        Picture picture = svg.renderToPicture();
-                        Bitmap bitmap = pictureToBitmap(picture);
-                        bitmapCache.put(iconDescriptor.url, bitmap);
-                        onIconReady.onReady(bitmap);
+                isResourceReady = true;
+                // parsing and rendering is too expensive for the main thread
+                iconExecutor.execute(() -> {
+                    final Bitmap bitmap = renderSvg(resource);
+                    if (bitmap != null) {
+                        diskCache.put(iconDescriptor.getKey(), bitmap);
                     }
-                } catch (IOException | SVGParseException exception) {
-                    onIconReady.onReady(null);
-                }
+                    activity.runOnUiThread(() -> onIconReady.onReady(bitmap != null ? cacheBitmap(bitmap) : null));
+                });
             }
 
             @Override
             public void onLoadCleared(@Nullable Drawable placeholder) {
-                onIconReady.onReady(null);
+                // the resource might still be rendering, in which case that will report back
+                if (!isResourceReady) {
+                    onIconReady.onReady(null);
+                }
             }
 
             @Override
@@ -128,6 +262,35 @@ class AsyncIconLoader {
         });
     }
 
+    /**
+     * Glide keeps the downloaded SVG in a disk cache of its own, which would serve an outdated SVG
+     * when its rendered icon has expired from the IconDiskCache, so the key changes every `MAX_AGE_MS`.
+     * An icon expires more than `MAX_AGE_MS` after its download, so it is always downloaded again in a later period.
+     * The generation of the IconDiskCache is part of the key too, in case Glide's disk cache was not cleared along with it.
+     */
+    private static ObjectKey getSvgSignature(int generation) {
+        return new ObjectKey(generation + "|" + System.currentTimeMillis() / IconDiskCache.MAX_AGE_MS);
+    }
+
+    @Nullable
+    private Bitmap renderSvg(File file) {
+        try (InputStream inputStream = new FileInputStream(file)) {
+            SVG svg = SVG.getFromInputStream(inputStream);
+            svg.setDocumentWidth(iconDescriptor.size.getWidth());
+            svg.setDocumentHeight(iconDescriptor.size.getHeight());
+            Picture picture = svg.renderToPicture();
+            return pictureToBitmap(picture);
+        } catch (IOException | SVGParseException exception) {
+            return null;
+        }
+    }
+
+    private BitmapDescriptor cacheBitmap(Bitmap bitmap) {
+        BitmapDescriptor bitmapDescriptor = BitmapDescriptorFactory.fromBitmap(bitmap);
+        iconCache.put(iconDescriptor.getKey(), new CachedIcon(bitmapDescriptor, bitmap.getByteCount()));
+        return bitmapDescriptor;
+    }
+
     private <T> RequestBuilder<T> scaleImageOptional(
             RequestBuilder<T> builder) {
         return builder.override(iconDescriptor.size.getWidth(), iconDescriptor.size.getHeight());
@@ -0,0 +1,171 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.core.util.Consumer;
+
+import com.google.android.libraries.maps.CameraUpdateFactory;
+import com.google.android.libraries.maps.GoogleMap;
+import com.google.android.libraries.maps.model.CameraPosition;
+import com.google.android.libraries.maps.model.LatLng;
+
+import java.util.List;
+
+/**
+ * Moves the camera of a map along a path of keyframes, by setting the camera position every frame.
+ * This way a complete path (e.g. a guided tour) only takes a single call from the WebView,
+ * and every keyframe can have its own duration and easing.
+ *
+ * All methods of this class should be called on the main thread.
+ */
+class CameraPathAnimator implements Choreographer.FrameCallback {
+
+    public static final String EASING_LINEAR = "linear";
+    public static final String EASING_EASE_IN = "ease-in";
+    public static final String EASING_EASE_OUT = "ease-out";
+    public static final String EASING_EASE_IN_OUT = "ease-in-out";
+
+    public static class Keyframe {
+        final CameraPosition cameraPosition;
+        final long durationMs;
+        final String easing;
+
+        /**
+         * @param durationMs the duration of the movement from the previous keyframe (or the current camera position) to this one
+         * @param easing one of the EASING_* constants
+         */
+        public Keyframe(@NonNull CameraPosition cameraPosition, long durationMs, @NonNull String easing) {
+            this.cameraPosition = cameraPosition;
+            this.durationMs = Math.max(0, durationMs);
+            this.easing = easing;
+        }
+    }
+
+    private final GoogleMap googleMap;
+    private final List<Keyframe> keyframes;
+    private final Consumer<Boolean> onEnd;
+
+    private CameraPosition segmentStart;
+    private int segmentIndex = 0;
+    private long segmentStartTimeNanos = -1;
+    private boolean isRunning = false;
+
+    /**
+     * @param onEnd called once, with true when the last keyframe has been reached, or false when it has been cancelled
+     */
+    public CameraPathAnimator(@NonNull GoogleMap googleMap, @NonNull List<Keyframe> keyframes, @NonNull Consumer<Boolean> onEnd) {
+        this.googleMap = googleMap;
+        this.keyframes = keyframes;
+        this.onEnd = onEnd;
+    }
+
+    public void start() {
+        if (isRunning) {
+            return;
+        }
+        isRunning = true;
+        segmentStart = googleMap.getCameraPosition();
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /**
+     * Stops the camera where it is now, e.g. because the user started a gesture.
+     */
+    public void cancel() {
+        if (!isRunning) {
+            return;
+        }
+        Choreographer.getInstance().removeFrameCallback(this);
+        end(false);
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!isRunning) {
+            return;
+        }
+
+        // skip the keyframes that should have been reached already (e.g. because they have no duration)
+        while (segmentIndex < keyframes.size()) {
+            if (segmentStartTimeNanos < 0) {
+                segmentStartTimeNanos = frameTimeNanos;
+            }
+            final Keyframe keyframe = keyframes.get(segmentIndex);
+            final long elapsedMs = (frameTimeNanos - segmentStartTimeNanos) / 1000000;
+            if (elapsedMs < keyframe.durationMs) {
+                final float fraction = ease(keyframe.easing, (float) elapsedMs / keyframe.durationMs);
+                googleMap.moveCamera(CameraUpdateFactory.newCameraPosition(interpolate(segmentStart, keyframe.cameraPosition, fraction)));
+                Choreographer.getInstance().postFrameCallback(this);
+                return;
+            }
+
+            // the next segment starts where this one ended, in time as well as in position
+            segmentStart = keyframe.cameraPosition;
+            segmentStartTimeNanos += keyframe.durationMs * 1000000;
+            segmentIndex++;
+        }
+
+        if (!keyframes.isEmpty()) {
+            googleMap.moveCamera(CameraUpdateFactory.newCameraPosition(keyframes.get(keyframes.size() - 1).cameraPosition));
+        }
+        end(true);
+    }
+
+    private void end(boolean isFinished) {
+        isRunning = false;
+        onEnd.accept(isFinished);
+    }
+
+    private static float ease(String easing, float t) {
+        switch (easing) {
+            case EASING_EASE_IN:
+                return t * t;
+            case EASING_EASE_OUT:
+                return t * (2 - t);
+            case EASING_EASE_IN_OUT:
+                return t < 0.5f ? 2 * t * t : -1 + (4 - 2 * t) * t;
+            case EASING_LINEAR:
+            default:
+                return t;
+        }
+    }
+
+    private static CameraPosition interpolate(CameraPosition from, CameraPosition to, float fraction) {
+        final double latitude = from.target.latitude + (to.target.latitude - from.target.latitude) * fraction;
+        // take the shortest way around the world, and around the compass
+        final double longitude = from.target.longitude + shortestDelta(from.target.longitude, to.target.longitude) * fraction;
+        final float bearing = (float) (from.bearing + shortestDelta(from.bearing, to.bearing) * fraction);
+
+        return CameraPosition.builder()
+                .target(new LatLng(latitude, wrap(longitude)))
+                .zoom(from.zoom + (to.zoom - from.zoom) * fraction)
+                .tilt(from.tilt + (to.tilt - from.tilt) * fraction)
+                .bearing((bearing + 360) % 360)
+                .build();
+    }
+
+    private static double shortestDelta(double from, double to) {
+        double delta = (to - from) % 360;
+        if (delta > 180) {
+            delta -= 360;
+        } else if (delta < -180) {
+            delta += 360;
+        }
+        return delta;
+    }
+
+    private static double wrap(double longitude) {
+        if (longitude > 180) {
+            return longitude - 360;
+        }
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        return longitude;
+    }
+}
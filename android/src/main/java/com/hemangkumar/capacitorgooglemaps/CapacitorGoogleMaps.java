@@ -3,11 +3,14 @@ package com.hemangkumar.capacitorgooglemaps;
 import android.Manifest;
 import android.annotation.SuppressLint;
 import android.graphics.Color;
-import android.graphics.Rect;
+import android.net.Uri;
+import android.os.SystemClock;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
 
+import androidx.annotation.Nullable;
+
 import com.getcapacitor.JSArray;
 import com.getcapacitor.JSObject;
 import com.getcapacitor.Plugin;
@@ -15,9 +18,14 @@ import com.getcapacitor.PluginCall;
 import com.getcapacitor.PluginMethod;
 import com.getcapacitor.annotation.CapacitorPlugin;
 import com.getcapacitor.annotation.Permission;
+import com.google.android.libraries.maps.MapView;
+import com.google.android.libraries.maps.model.BitmapDescriptor;
 import com.google.android.libraries.maps.model.CameraPosition;
-import com.google.android.libraries.maps.model.Marker;
 
+import org.json.JSONException;
+
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -36,8 +44,14 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
     private final HashMap<String, CustomMapView> customMapViews = new HashMap<>();
     Float devicePixelRatio;
     private String lastEventChainId;
-    public List<MotionEvent> previousEvents = new ArrayList<>();
+    private final MotionEventBuffer previousEvents = new MotionEventBuffer();
     private String delegateTouchEventsToMapId;
+    // whether it is known where the touch events of the current gesture should go, without asking the WebView
+    private boolean isTouchDelegationDecided = false;
+    @Nullable
+    private TouchDelegationRegions touchDelegationRegions;
+    private WorkerPool workerPool;
+    private MapViewPool mapViewPool;
 
     @PluginMethod()
     public void elementFromPointResult(PluginCall call) {
@@ -64,6 +78,9 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
     public void load() {
         super.load();
 
+        workerPool = new WorkerPool();
+        mapViewPool = new MapViewPool(getBridge().getActivity());
+
         this.getBridge().getWebView().setOnTouchListener(new View.OnTouchListener() {
             @Override
             public boolean onTouch(View view, MotionEvent event) {
@@ -74,8 +91,23 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
                     // The framework may have dropped the up or cancel event for the previous gesture
                     // due to an app switch, ANR, or some other state change.
                     delegateTouchEventsToMapId = null;
+                    isTouchDelegationDecided = false;
+                    lastEventChainId = null;
                     previousEvents.clear();
 
+                    if (touchDelegationRegions != null) {
+                        // The WebView has told us up front where its maps and overlaying elements are,
+                        // so in most cases there is no need to ask it which element has been touched.
+                        if (touchDelegationRegions.isExcluded(event.getX(), event.getY())) {
+                            isTouchDelegationDecided = true;
+                        } else {
+                            delegateTouchEventsToMapId = touchDelegationRegions.findMapId(event.getX(), event.getY());
+                            isTouchDelegationDecided = delegateTouchEventsToMapId != null;
+                        }
+                    }
+                }
+
+                if (touchType == MotionEvent.ACTION_DOWN && !isTouchDelegationDecided) {
                     // Initialize JSObjects for resolve().
                     JSObject result = new JSObject();
                     JSObject point = new JSObject();
@@ -113,11 +145,8 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
                         // If previous events exist, we should execute those first
                         if (previousEvents.size() > 0) {
                             for (int i = 0; i < previousEvents.size(); i++) {
-                                MotionEvent e = previousEvents.get(i);
-                                if (e != null) {
-                                    // Delegate this previous event to the MapView.
-                                    dispatchTouchEvent(e, customMapView);
-                                }
+                                // Delegate this previous event to the MapView.
+                                dispatchTouchEvent(previousEvents.get(i), customMapView);
                             }
                             // Since we delegated all previous events, we can now forget about them.
                             previousEvents.clear();
@@ -126,14 +155,20 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
                         // Finally delegate the current event to the MapView.
                         dispatchTouchEvent(event, customMapView);
                     }
-                } else {
+                } else if (!isTouchDelegationDecided) {
                     // If delegateTouchEventsToMapId is not set, but it could still be set later!
                     // So we should save all past events.
                     // That way we can still execute them later on.
-                    // It is important that we use MotionEvent.obtain() to copy the event first.
-                    // Otherwise the event does not work properly when delegating it later on.
-                    MotionEvent clonedEvent = MotionEvent.obtain(event);
-                    previousEvents.add(clonedEvent);
+                    // The buffer copies the event, since the original one is reused by the framework,
+                    // and it limits how many (and how old) events are kept.
+                    previousEvents.add(event);
+
+                    if (previousEvents.isAbandoned()) {
+                        // The start of this gesture is gone, so it cannot be delegated to a map anymore.
+                        // Forget the chain id as well, so a late answer of the WebView is ignored.
+                        lastEventChainId = null;
+                        isTouchDelegationDecided = true;
+                    }
                 }
 
                 return false;
@@ -142,22 +177,7 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
     }
 
     private void dispatchTouchEvent(MotionEvent event, CustomMapView customMapView) {
-        Rect offsetViewBounds = new Rect();
-        // returns the visible bounds
-        customMapView.mapView.getDrawingRect(offsetViewBounds);
-        // calculates the relative coordinates to the parent
-        ViewGroup parentViewGroup = (ViewGroup) bridge.getWebView().getParent();
-        parentViewGroup.offsetDescendantRectToMyCoords(customMapView.mapView, offsetViewBounds);
-
-        int relativeTop = offsetViewBounds.top;
-        int relativeLeft = offsetViewBounds.left;
-
-        // Set location with offset points,
-        // because if a map is positioned with a different top and left point than the WebView,
-        // that should be accounted for.
-        event.setLocation(event.getX() - relativeLeft, event.getY() - relativeTop);
-
-        customMapView.mapView.dispatchTouchEvent(event);
+        customMapView.dispatchTouchEvent(event, (ViewGroup) bridge.getWebView().getParent());
     }
 
     @Override
@@ -168,6 +188,7 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
                 customMapView.handleOnStart();
             }
         }
+        mapViewPool.handleOnStart();
     }
 
     @Override
@@ -178,6 +199,7 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
                 customMapView.handleOnResume();
             }
         }
+        mapViewPool.handleOnResume();
     }
 
     @Override
@@ -187,6 +209,7 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
                 customMapView.handleOnPause();
             }
         }
+        mapViewPool.handleOnPause();
         super.handleOnPause();
     }
 
@@ -198,6 +221,7 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
                 customMapView.handleOnStop();
             }
         }
+        mapViewPool.handleOnStop();
     }
 
     @Override
@@ -207,6 +231,10 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
                 customMapView.handleOnDestroy();
             }
         }
+        mapViewPool.handleOnDestroy();
+        if (workerPool != null) {
+            workerPool.shutdown();
+        }
         super.handleOnDestroy();
     }
 
@@ -216,6 +244,120 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
          *  TODO: Check API key
          */
         devicePixelRatio = call.getFloat("devicePixelRatio");
+
+        final Integer touchEventBufferSize = call.getInt("touchEventBufferSize", MotionEventBuffer.DEFAULT_CAPACITY);
+        final Integer touchEventMaxAge = call.getInt("touchEventMaxAge", MotionEventBuffer.DEFAULT_MAX_AGE_MS);
+        final Boolean compactTouchMoves = call.getBoolean("compactTouchMoves", false);
+        final Integer mapViewPoolSize = call.getInt("mapViewPoolSize", 0);
+
+        getBridge().getActivity().runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                previousEvents.configure(
+                        touchEventBufferSize != null ? touchEventBufferSize : MotionEventBuffer.DEFAULT_CAPACITY,
+                        touchEventMaxAge != null ? touchEventMaxAge : MotionEventBuffer.DEFAULT_MAX_AGE_MS,
+                        compactTouchMoves != null && compactTouchMoves
+                );
+                // creating MapViews up front makes `createMap` a lot faster later on
+                mapViewPool.setCapacity(mapViewPoolSize != null ? mapViewPoolSize : 0);
+                mapViewPool.prewarm();
+                call.resolve();
+            }
+        });
+    }
+
+    @PluginMethod(returnType = PluginMethod.RETURN_NONE)
+    public void setTouchDelegationRegions(final PluginCall call) {
+        final Boolean isEnabled = call.getBoolean("isEnabled", true);
+
+        TouchDelegationRegions regions = null;
+        if (isEnabled != null && isEnabled) {
+            final float scale = devicePixelRatio != null && devicePixelRatio > 0
+                    ? devicePixelRatio
+                    : getBridge().getActivity().getResources().getDisplayMetrics().density;
+            try {
+                regions = TouchDelegationRegions.fromJSArrays(
+                        call.getArray("mapRegions", new JSArray()),
+                        call.getArray("exclusionRegions", new JSArray()),
+                        scale
+                );
+            } catch (JSONException e) {
+                call.reject("invalid regions", e);
+                return;
+            }
+        }
+
+        // touch events are handled on the main thread, so the regions are swapped there as well
+        final TouchDelegationRegions newTouchDelegationRegions = regions;
+        getBridge().getActivity().runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                touchDelegationRegions = newTouchDelegationRegions;
+                call.resolve();
+            }
+        });
+    }
+
+    @PluginMethod()
+    public void getWorkerPoolStats(PluginCall call) {
+        call.resolve(workerPool.getStats());
+    }
+
+    @PluginMethod()
+    public void preloadIcons(final PluginCall call) {
+        final JSArray jsIcons = call.getArray("icons", new JSArray());
+        final int n = jsIcons.length();
+        final Object[] iconResults = new Object[n];
+
+        if (n == 0) {
+            JSObject result = new JSObject();
+            result.put("icons", new JSArray());
+            call.resolve(result);
+            return;
+        }
+
+        getBridge().getActivity().runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                // all loaders report back on the main thread, so a plain counter suffices
+                final int[] remaining = { n };
+
+                for (int i = 0; i < n; i++) {
+                    final int index = i;
+                    final long start = SystemClock.elapsedRealtime();
+
+                    JSObject jsIcon;
+                    try {
+                        jsIcon = JSObject.fromJSONObject(jsIcons.getJSONObject(i));
+                    } catch (JSONException e) {
+                        jsIcon = new JSObject();
+                    }
+                    final String url = jsIcon.optString("url", "");
+
+                    // loading an icon into the cache is all that is needed, since all markers share that cache
+                    final AsyncIconLoader asyncIconLoader = new AsyncIconLoader(jsIcon, getBridge().getActivity());
+                    asyncIconLoader.load((BitmapDescriptor bitmapDescriptor) -> {
+                        JSObject iconResult = new JSObject();
+                        iconResult.put("url", url);
+                        iconResult.put("success", bitmapDescriptor != null);
+                        iconResult.put("byteCount", asyncIconLoader.getCachedByteCount());
+                        iconResult.put("duration", SystemClock.elapsedRealtime() - start);
+                        iconResults[index] = iconResult;
+
+                        if (--remaining[0] == 0) {
+                            JSObject result = new JSObject();
+                            result.put("icons", JSArray.from(iconResults));
+                            call.resolve(result);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    @PluginMethod(returnType = PluginMethod.RETURN_NONE)
+    public void clearIconCache(PluginCall call) {
+        AsyncIconLoader.clearCaches(getContext());
         call.resolve();
     }
 
@@ -238,11 +380,14 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
         getBridge().getActivity().runOnUiThread(new Runnable() {
             @Override
             public void run() {
-                CustomMapView customMapView = new CustomMapView(getBridge().getActivity(), ctx);
+                CustomMapView customMapView = new CustomMapView(getBridge().getActivity(), ctx, workerPool);
 
                 customMapViews.put(customMapView.getId(), customMapView);
 
-                customMapView.createMap(callbackId, boundingRect, mapCameraPosition, mapPreferences);
+                // pooled MapViews are full maps, so lite mode maps are always created from scratch
+                final MapView pooledMapView = mapPreferences.isLiteMode ? null : mapViewPool.acquire();
+
+                customMapView.createMap(callbackId, boundingRect, mapCameraPosition, mapPreferences, pooledMapView);
 
                 customMapView.addToView(((ViewGroup) bridge.getWebView().getParent()));
 
@@ -312,6 +457,11 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
                 if (customMapView != null) {
                     customMapView.removeFromView(((ViewGroup) bridge.getWebView().getParent()));
                     customMapViews.remove(mapId);
+                    for (String callbackId : customMapView.removeAllEventListeners()) {
+                        releaseSavedCall(callbackId);
+                    }
+                    // the MapView is kept for a next map when the pool has room for it
+                    customMapView.release(mapViewPool);
                     call.resolve();
                 } else {
                     call.reject("map not found");
@@ -373,6 +523,57 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
         });
     }
 
+    @PluginMethod()
+    public void animateCameraPath(final PluginCall call) {
+        final String mapId = call.getString("mapId");
+        final JSArray jsKeyframes = call.getArray("keyframes", new JSArray());
+
+        getBridge().getActivity().runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                CustomMapView customMapView = customMapViews.get(mapId);
+
+                if (customMapView != null) {
+                    // every keyframe is relative to the previous one, so e.g. only the zoom can be changed
+                    CameraPosition baseCameraPosition = customMapView.getCameraPosition();
+                    final List<CameraPathAnimator.Keyframe> keyframes = new ArrayList<>();
+                    try {
+                        for (int i = 0; i < jsKeyframes.length(); i++) {
+                            JSObject jsKeyframe = JSObject.fromJSONObject(jsKeyframes.getJSONObject(i));
+
+                            MapCameraPosition mapCameraPosition = new MapCameraPosition();
+                            mapCameraPosition.updateFromJSObject(jsKeyframe.getJSObject("cameraPosition"), baseCameraPosition);
+                            baseCameraPosition = mapCameraPosition.cameraPosition;
+
+                            keyframes.add(new CameraPathAnimator.Keyframe(
+                                    mapCameraPosition.cameraPosition,
+                                    JSObjectDefaults.getIntegerSafe(jsKeyframe, "duration", 0),
+                                    jsKeyframe.getString("easing", CameraPathAnimator.EASING_EASE_IN_OUT)
+                            ));
+                        }
+                    } catch (JSONException e) {
+                        call.reject("invalid keyframes", e);
+                        return;
+                    }
+
+                    if (!keyframes.isEmpty()) {
+                        // the last keyframe is the camera position that has been set explicitly, just like with `moveCamera`
+                        customMapView.mapCameraPosition.cameraPosition = keyframes.get(keyframes.size() - 1).cameraPosition;
+                    }
+
+                    customMapView.animateCameraPath(keyframes, (Boolean isFinished) -> {
+                        JSObject result = new JSObject();
+                        result.put("mapId", mapId);
+                        result.put("finished", isFinished);
+                        call.resolve(result);
+                    });
+                } else {
+                    call.reject("map not found");
+                }
+            }
+        });
+    }
+
     @Override
     public void onMapReady(String callbackId, JSObject result) {
         PluginCall call = bridge.getSavedCall(callbackId);
@@ -382,75 +583,80 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
 
     @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
     public void didTapInfoWindow(final PluginCall call) {
-        setCallbackIdForEvent(call, CustomMapView.EVENT_DID_TAP_INFO_WINDOW);
+        setCallbackIdForEvent(call, MapEvent.DID_TAP_INFO_WINDOW);
     }
 
     @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
     public void didCloseInfoWindow(final PluginCall call) {
-        setCallbackIdForEvent(call, CustomMapView.EVENT_DID_CLOSE_INFO_WINDOW);
+        setCallbackIdForEvent(call, MapEvent.DID_CLOSE_INFO_WINDOW);
     }
 
     @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
     public void didTapMap(final PluginCall call) {
-        setCallbackIdForEvent(call, CustomMapView.EVENT_DID_TAP_MAP);
+        setCallbackIdForEvent(call, MapEvent.DID_TAP_MAP);
     }
 
     @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
     public void didLongPressMap(final PluginCall call) {
-        setCallbackIdForEvent(call, CustomMapView.EVENT_DID_LONG_PRESS_MAP);
+        setCallbackIdForEvent(call, MapEvent.DID_LONG_PRESS_MAP);
     }
 
     @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
     public void didTapMarker(final PluginCall call) {
-        setCallbackIdForEvent(call, CustomMapView.EVENT_DID_TAP_MARKER);
+        setCallbackIdForEvent(call, MapEvent.DID_TAP_MARKER);
+    }
+
+    @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
+    public void didTapCluster(final PluginCall call) {
+        setCallbackIdForEvent(call, MapEvent.DID_TAP_CLUSTER);
     }
 
     @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
     public void didBeginDraggingMarker(final PluginCall call) {
-        setCallbackIdForEvent(call, CustomMapView.EVENT_DID_BEGIN_DRAGGING_MARKER);
+        setCallbackIdForEvent(call, MapEvent.DID_BEGIN_DRAGGING_MARKER);
     }
 
     @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
     public void didDragMarker(final PluginCall call) {
-        setCallbackIdForEvent(call, CustomMapView.EVENT_DID_DRAG_MARKER);
+        setCallbackIdForEvent(call, MapEvent.DID_DRAG_MARKER);
     }
 
     @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
     public void didEndDraggingMarker(final PluginCall call) {
-        setCallbackIdForEvent(call, CustomMapView.EVENT_DID_END_DRAGGING_MARKER);
+        setCallbackIdForEvent(call, MapEvent.DID_END_DRAGGING_MARKER);
     }
 
     @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
     public void didTapMyLocationButton(final PluginCall call) {
-        setCallbackIdForEvent(call, CustomMapView.EVENT_DID_TAP_MY_LOCATION_BUTTON);
+        setCallbackIdForEvent(call, MapEvent.DID_TAP_MY_LOCATION_BUTTON);
     }
 
     @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
     public void didTapMyLocationDot(final PluginCall call) {
-        setCallbackIdForEvent(call, CustomMapView.EVENT_DID_TAP_MY_LOCATION_DOT);
+        setCallbackIdForEvent(call, MapEvent.DID_TAP_MY_LOCATION_DOT);
     }
 
     @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
     public void didTapPoi(final PluginCall call) {
-        setCallbackIdForEvent(call, CustomMapView.EVENT_DID_TAP_POI);
+        setCallbackIdForEvent(call, MapEvent.DID_TAP_POI);
     }
 
     @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
     public void didBeginMovingCamera(final PluginCall call) {
-        setCallbackIdForEvent(call, CustomMapView.EVENT_DID_BEGIN_MOVING_CAMERA);
+        setCallbackIdForEvent(call, MapEvent.DID_BEGIN_MOVING_CAMERA);
     }
 
     @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
     public void didMoveCamera(final PluginCall call) {
-        setCallbackIdForEvent(call, CustomMapView.EVENT_DID_MOVE_CAMERA);
+        setCallbackIdForEvent(call, MapEvent.DID_MOVE_CAMERA);
     }
 
     @PluginMethod(returnType = PluginMethod.RETURN_CALLBACK)
     public void didEndMovingCamera(final PluginCall call) {
-        setCallbackIdForEvent(call, CustomMapView.EVENT_DID_END_MOVING_CAMERA);
+        setCallbackIdForEvent(call, MapEvent.DID_END_MOVING_CAMERA);
     }
 
-    public void setCallbackIdForEvent(final PluginCall call, final String eventName) {
+    public void setCallbackIdForEvent(final PluginCall call, final MapEvent mapEvent) {
         call.setKeepAlive(true);
         final String callbackId = call.getCallbackId();
         String mapId = call.getString("mapId");
@@ -460,20 +666,52 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
         if (customMapView != null) {
             final Boolean preventDefault = call.getBoolean("preventDefault", false);
 
-
             getBridge().getActivity().runOnUiThread(new Runnable() {
                 @Override
                 public void run() {
-                    customMapView.setCallbackIdForEvent(callbackId, eventName, preventDefault);
+                    customMapView.addEventListener(mapEvent, callbackId, preventDefault != null && preventDefault);
                 }
             });
         }
     }
 
+    @PluginMethod(returnType = PluginMethod.RETURN_NONE)
+    public void removeMapListener(final PluginCall call) {
+        final String mapId = call.getString("mapId");
+        final String callbackId = call.getString("callbackId");
+
+        getBridge().getActivity().runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                CustomMapView customMapView = customMapViews.get(mapId);
+
+                if (customMapView != null) {
+                    if (callbackId != null && customMapView.removeEventListener(callbackId)) {
+                        releaseSavedCall(callbackId);
+                        call.resolve();
+                    } else {
+                        call.reject("listener not found");
+                    }
+                } else {
+                    call.reject("map not found");
+                }
+            }
+        });
+    }
+
+    private void releaseSavedCall(String callbackId) {
+        PluginCall savedCall = bridge.getSavedCall(callbackId);
+        if (savedCall != null) {
+            bridge.releaseCall(savedCall);
+        }
+    }
+
     @Override
     public void resultForCallbackId(String callbackId, JSObject result) {
         PluginCall call = bridge.getSavedCall(callbackId);
-        call.resolve(result);
+        if (call != null) {
+            call.resolve(result);
+        }
     }
 
     @PluginMethod()
@@ -491,8 +729,8 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
 
                     customMapView.addMarker(
                         customMarker,
-                        (Marker marker) -> {
-                            call.resolve(CustomMarker.getResultForMarker(marker, mapId));
+                        (JSObject result) -> {
+                            call.resolve(result);
                         }
                     );
                 } else {
@@ -511,14 +749,176 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
             return;
         }
         try {
-            final JSArray jsMarkers = call.getArray("markers", new JSArray());
-            MarkersAppender appender = new MarkersAppender();
-            appender.addMarkers(customMapView, jsMarkers, getBridge().getActivity(), call::resolve);
+            final MarkersAppender.InsertionOptions insertionOptions = new MarkersAppender.InsertionOptions();
+            insertionOptions.updateFromPluginCall(call);
+            MarkersAppender appender = new MarkersAppender(workerPool);
+
+            final JSObject jsColumns = call.getObject("columns");
+            if (jsColumns != null) {
+                appender.addMarkersFromColumns(customMapView, jsColumns, getBridge().getActivity(), insertionOptions, call::resolve);
+            } else {
+                final JSArray jsMarkers = call.getArray("markers", new JSArray());
+                appender.addMarkers(customMapView, jsMarkers, getBridge().getActivity(), insertionOptions, call::resolve);
+            }
         } catch (MarkersAppender.AppenderException e) {
             call.reject("exception in addMarkers", e);
         }
     }
 
+    @PluginMethod()
+    public void setMarkers(final PluginCall call) {
+        final String mapId = call.getString("mapId");
+        CustomMapView customMapView = customMapViews.get(mapId);
+        if (customMapView == null) {
+            call.reject("map not found");
+            return;
+        }
+        try {
+            final JSArray jsMarkers = call.getArray("markers", new JSArray());
+            final MarkersAppender.InsertionOptions insertionOptions = new MarkersAppender.InsertionOptions();
+            insertionOptions.updateFromPluginCall(call);
+            MarkersAppender appender = new MarkersAppender(workerPool);
+            appender.setMarkers(customMapView, jsMarkers, getBridge().getActivity(), insertionOptions, call::resolve);
+        } catch (MarkersAppender.AppenderException e) {
+            call.reject("exception in setMarkers", e);
+        }
+    }
+
+    @PluginMethod(returnType = PluginMethod.RETURN_NONE)
+    public void setMarkerClustering(final PluginCall call) {
+        final String mapId = call.getString("mapId");
+
+        getBridge().getActivity().runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                CustomMapView customMapView = customMapViews.get(mapId);
+
+                if (customMapView != null) {
+                    Boolean isEnabled = call.getBoolean("isEnabled", true);
+
+                    if (isEnabled != null && isEnabled) {
+                        Integer gridSize = call.getInt("gridSize", MarkerClusterer.DEFAULT_GRID_SIZE);
+                        Integer minimumClusterSize = call.getInt("minimumClusterSize", MarkerClusterer.DEFAULT_MINIMUM_CLUSTER_SIZE);
+                        customMapView.setMarkerClusterer(new MarkerClusterer(
+                                gridSize != null ? gridSize : MarkerClusterer.DEFAULT_GRID_SIZE,
+                                minimumClusterSize != null ? minimumClusterSize : MarkerClusterer.DEFAULT_MINIMUM_CLUSTER_SIZE
+                        ));
+                    } else {
+                        customMapView.setMarkerClusterer(null);
+                    }
+
+                    call.resolve();
+                } else {
+                    call.reject("map not found");
+                }
+            }
+        });
+    }
+
+    @PluginMethod(returnType = PluginMethod.RETURN_NONE)
+    public void setViewportCulling(final PluginCall call) {
+        final String mapId = call.getString("mapId");
+
+        getBridge().getActivity().runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                CustomMapView customMapView = customMapViews.get(mapId);
+
+                if (customMapView != null) {
+                    Boolean isEnabled = call.getBoolean("isEnabled", true);
+                    Float margin = call.getFloat("margin", CustomMapView.DEFAULT_VIEWPORT_CULLING_MARGIN);
+
+                    customMapView.setViewportCulling(
+                            isEnabled != null && isEnabled,
+                            margin != null ? margin : CustomMapView.DEFAULT_VIEWPORT_CULLING_MARGIN
+                    );
+
+                    call.resolve();
+                } else {
+                    call.reject("map not found");
+                }
+            }
+        });
+    }
+
+    @PluginMethod(returnType = PluginMethod.RETURN_NONE)
+    public void configureDidMoveCamera(final PluginCall call) {
+        final String mapId = call.getString("mapId");
+        final Float maxEventRate = call.getFloat("maxEventRate", 0f);
+        final Boolean includeCameraPosition = call.getBoolean("includeCameraPosition", false);
+
+        getBridge().getActivity().runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                CustomMapView customMapView = customMapViews.get(mapId);
+
+                if (customMapView != null) {
+                    customMapView.setDidMoveCameraOptions(
+                            maxEventRate != null ? maxEventRate : 0f,
+                            includeCameraPosition != null && includeCameraPosition
+                    );
+                    call.resolve();
+                } else {
+                    call.reject("map not found");
+                }
+            }
+        });
+    }
+
+    @PluginMethod(returnType = PluginMethod.RETURN_NONE)
+    public void configureDidDragMarker(final PluginCall call) {
+        final String mapId = call.getString("mapId");
+        final Integer minInterval = call.getInt("minInterval", 0);
+        final Float minDistance = call.getFloat("minDistance", 0f);
+        final Boolean compactResult = call.getBoolean("compactResult", false);
+
+        getBridge().getActivity().runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                CustomMapView customMapView = customMapViews.get(mapId);
+
+                if (customMapView != null) {
+                    customMapView.setDidDragMarkerOptions(
+                            minInterval != null ? minInterval : 0,
+                            minDistance != null ? minDistance : 0f,
+                            compactResult != null && compactResult
+                    );
+                    call.resolve();
+                } else {
+                    call.reject("map not found");
+                }
+            }
+        });
+    }
+
+    @PluginMethod()
+    public void getClusterMembers(final PluginCall call) {
+        final String mapId = call.getString("mapId");
+
+        getBridge().getActivity().runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                CustomMapView customMapView = customMapViews.get(mapId);
+
+                if (customMapView != null) {
+                    final String clusterId = call.getString("clusterId");
+
+                    List<String> markerIds = customMapView.getClusterMembers(clusterId);
+
+                    if (markerIds != null) {
+                        JSObject result = new JSObject();
+                        result.put("markerIds", JSArray.from(markerIds.toArray()));
+                        call.resolve(result);
+                    } else {
+                        call.reject("cluster not found");
+                    }
+                } else {
+                    call.reject("map not found");
+                }
+            }
+        });
+    }
+
     @PluginMethod(returnType = PluginMethod.RETURN_NONE)
     public void removeMarker(final PluginCall call) {
         final String mapId = call.getString("mapId");
@@ -540,4 +940,242 @@ public class CapacitorGoogleMaps extends Plugin implements CustomMapViewEvents {
             }
         });
     }
+
+    @PluginMethod()
+    public void updateMarkerPositions(final PluginCall call) {
+        final String mapId = call.getString("mapId");
+        final Integer duration = call.getInt("duration", 1000);
+
+        // decode the (possibly packed) arrays before going to the main thread
+        final String[] markerIds;
+        final double[] latitudes;
+        final double[] longitudes;
+        try {
+            final JSArray jsMarkerIds = call.getArray("markerIds", new JSArray());
+            markerIds = new String[jsMarkerIds.length()];
+            for (int i = 0; i < markerIds.length; i++) {
+                markerIds[i] = jsMarkerIds.getString(i);
+            }
+            latitudes = PackedArrays.decodeDoubles(call.getData().opt("latitudes"));
+            longitudes = PackedArrays.decodeDoubles(call.getData().opt("longitudes"));
+        } catch (JSONException e) {
+            call.reject("invalid positions", e);
+            return;
+        }
+        if (latitudes == null || longitudes == null || latitudes.length != markerIds.length || longitudes.length != markerIds.length) {
+            call.reject("markerIds, latitudes and longitudes should have the same length");
+            return;
+        }
+
+        getBridge().getActivity().runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                CustomMapView customMapView = customMapViews.get(mapId);
+
+                if (customMapView != null) {
+                    List<String> unknownMarkerIds = new ArrayList<>();
+                    int updatedCount = customMapView.updateMarkerPositions(markerIds, latitudes, longitudes, duration, unknownMarkerIds);
+
+                    JSObject result = new JSObject();
+                    result.put("mapId", mapId);
+                    result.put("updatedCount", updatedCount);
+                    result.put("unknownMarkerIds", JSArray.from(unknownMarkerIds.toArray()));
+                    call.resolve(result);
+                } else {
+                    call.reject("map not found");
+                }
+            }
+        });
+    }
+
+    @PluginMethod()
+    public void addPolyline(final PluginCall call) {
+        addShape(call, false);
+    }
+
+    @PluginMethod()
+    public void addPolygon(final PluginCall call) {
+        addShape(call, true);
+    }
+
+    private void addShape(final PluginCall call, final boolean isPolygon) {
+        final String mapId = call.getString("mapId");
+
+        // decoding a long path takes a while, so it is not done on the main thread
+        final CustomShape customShape;
+        try {
+            customShape = CustomShape.fromJSObject(call.getData(), isPolygon);
+        } catch (JSONException e) {
+            call.reject("invalid path", e);
+            return;
+        }
+
+        getBridge().getActivity().runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                CustomMapView customMapView = customMapViews.get(mapId);
+
+                if (customMapView != null) {
+                    customMapView.addShape(customShape, (JSObject result) -> {
+                        if (result != null) {
+                            call.resolve(result);
+                        } else {
+                            call.reject("map not ready");
+                        }
+                    });
+                } else {
+                    call.reject("map not found");
+                }
+            }
+        });
+    }
+
+    @PluginMethod(returnType = PluginMethod.RETURN_NONE)
+    public void removeShape(final PluginCall call) {
+        final String mapId = call.getString("mapId");
+        final String shapeId = call.getString("shapeId");
+
+        getBridge().getActivity().runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                CustomMapView customMapView = customMapViews.get(mapId);
+
+                if (customMapView != null) {
+                    if (customMapView.removeShape(shapeId)) {
+                        call.resolve();
+                    } else {
+                        call.reject("shape not found");
+                    }
+                } else {
+                    call.reject("map not found");
+                }
+            }
+        });
+    }
+
+    @PluginMethod()
+    public void addHeatmap(final PluginCall call) {
+        final String mapId = call.getString("mapId");
+        String givenTileOverlayId = call.getString("tileOverlayId");
+        final String tileOverlayId = givenTileOverlayId != null && !givenTileOverlayId.isEmpty()
+                ? givenTileOverlayId
+                : UUID.randomUUID().toString();
+
+        final JSObject preferences = JSObjectDefaults.getJSObjectSafe(call, "preferences", new JSObject());
+        final Float opacity = JSObjectDefaults.getFloatSafe(preferences, "opacity", 0.7f);
+        final Float zIndex = JSObjectDefaults.getFloatSafe(preferences, "zIndex", 0f);
+
+        // indexing (possibly hundreds of thousands of) points takes a while, so it is not done on the main thread
+        final HeatmapTileProvider heatmapTileProvider;
+        try {
+            heatmapTileProvider = HeatmapTileProvider.fromJSObjects(
+                    JSObjectDefaults.getJSObjectSafe(call, "points", new JSObject()),
+                    preferences
+            );
+        } catch (JSONException e) {
+            call.reject("invalid points", e);
+            return;
+        }
+
+        getBridge().getActivity().runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                CustomMapView customMapView = customMapViews.get(mapId);
+
+                if (customMapView != null) {
+                    if (customMapView.setTileOverlay(tileOverlayId, heatmapTileProvider, zIndex, 1 - opacity)) {
+                        JSObject result = new JSObject();
+                        result.put("mapId", mapId);
+                        result.put("tileOverlayId", tileOverlayId);
+                        result.put("pointCount", heatmapTileProvider.getPointCount());
+                        call.resolve(result);
+                    } else {
+                        call.reject("map not ready");
+                    }
+                } else {
+                    call.reject("map not found");
+                }
+            }
+        });
+    }
+
+    @PluginMethod()
+    public void addLocalTileOverlay(final PluginCall call) {
+        final String mapId = call.getString("mapId");
+        String givenTileOverlayId = call.getString("tileOverlayId");
+        final String tileOverlayId = givenTileOverlayId != null && !givenTileOverlayId.isEmpty()
+                ? givenTileOverlayId
+                : UUID.randomUUID().toString();
+
+        String path = call.getString("path", "");
+        if (path.startsWith("file://")) {
+            String uriPath = Uri.parse(path).getPath();
+            path = uriPath != null ? uriPath : "";
+        }
+        // relative paths are relative to the files directory of the app
+        File file = new File(path);
+        if (!file.isAbsolute()) {
+            file = new File(getContext().getFilesDir(), path);
+        }
+        final String pathTemplate = call.getString("pathTemplate", LocalTileProvider.DEFAULT_PATH_TEMPLATE);
+        final Integer tileSize = call.getInt("tileSize", LocalTileProvider.DEFAULT_TILE_SIZE);
+
+        final JSObject preferences = JSObjectDefaults.getJSObjectSafe(call, "preferences", new JSObject());
+        final Float opacity = JSObjectDefaults.getFloatSafe(preferences, "opacity", 1f);
+        final Float zIndex = JSObjectDefaults.getFloatSafe(preferences, "zIndex", 0f);
+
+        // opening the database touches the disk, so it is not done on the main thread
+        final LocalTileProvider localTileProvider;
+        try {
+            localTileProvider = LocalTileProvider.open(file, pathTemplate, tileSize);
+        } catch (IOException e) {
+            call.reject("invalid tile source", e);
+            return;
+        }
+
+        getBridge().getActivity().runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                CustomMapView customMapView = customMapViews.get(mapId);
+
+                if (customMapView != null) {
+                    if (customMapView.setTileOverlay(tileOverlayId, localTileProvider, zIndex, 1 - opacity)) {
+                        JSObject result = new JSObject();
+                        result.put("mapId", mapId);
+                        result.put("tileOverlayId", tileOverlayId);
+                        call.resolve(result);
+                    } else {
+                        localTileProvider.close();
+                        call.reject("map not ready");
+                    }
+                } else {
+                    localTileProvider.close();
+                    call.reject("map not found");
+                }
+            }
+        });
+    }
+
+    @PluginMethod(returnType = PluginMethod.RETURN_NONE)
+    public void removeTileOverlay(final PluginCall call) {
+        final String mapId = call.getString("mapId");
+        final String tileOverlayId = call.getString("tileOverlayId");
+
+        getBridge().getActivity().runOnUiThread(new Runnable() {
+            @Override
+            public void run() {
+                CustomMapView customMapView = customMapViews.get(mapId);
+
+                if (customMapView != null) {
+                    if (customMapView.removeTileOverlay(tileOverlayId)) {
+                        call.resolve();
+                    } else {
+                        call.reject("tile overlay not found");
+                    }
+                } else {
+                    call.reject("map not found");
+                }
+            }
+        });
+    }
 }
@@ -0,0 +1,80 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+
+import com.google.android.libraries.maps.model.BitmapDescriptor;
+import com.google.android.libraries.maps.model.BitmapDescriptorFactory;
+
+import java.util.HashMap;
+
+/**
+ * Creates the icons of cluster markers: a circle with the (bucketed) number of markers in it.
+ * Icons are cached per label, so there are only a few distinct bitmaps no matter how many clusters exist.
+ */
+class ClusterIconFactory {
+
+    private static final int[] BUCKETS = { 10, 20, 50, 100, 200, 500, 1000 };
+
+    private final HashMap<String, BitmapDescriptor> iconCache = new HashMap<>();
+    private final float density = Resources.getSystem().getDisplayMetrics().density;
+
+    /**
+     * Should be called on the main thread.
+     */
+    public BitmapDescriptor getIcon(int count) {
+        final String label = getLabel(count);
+
+        BitmapDescriptor icon = iconCache.get(label);
+        if (icon == null) {
+            icon = BitmapDescriptorFactory.fromBitmap(createBitmap(label, count));
+            iconCache.put(label, icon);
+        }
+        return icon;
+    }
+
+    private static String getLabel(int count) {
+        if (count < BUCKETS[0]) {
+            return String.valueOf(count);
+        }
+        for (int i = BUCKETS.length - 1; i >= 0; i--) {
+            if (count >= BUCKETS[i]) {
+                return BUCKETS[i] + "+";
+            }
+        }
+        return String.valueOf(count);
+    }
+
+    private Bitmap createBitmap(String label, int count) {
+        // the more markers a cluster holds, the bigger it is
+        final float radius = (18 + Math.min(count, 1000) / 100f) * density;
+        final int size = (int) Math.ceil(radius * 2);
+
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+
+        Paint circlePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        circlePaint.setColor(Color.argb(220, 33, 150, 243));
+        canvas.drawCircle(radius, radius, radius, circlePaint);
+
+        Paint strokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        strokePaint.setColor(Color.WHITE);
+        strokePaint.setStyle(Paint.Style.STROKE);
+        strokePaint.setStrokeWidth(2 * density);
+        canvas.drawCircle(radius, radius, radius - density, strokePaint);
+
+        Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        textPaint.setColor(Color.WHITE);
+        textPaint.setTextAlign(Paint.Align.CENTER);
+        textPaint.setTypeface(Typeface.DEFAULT_BOLD);
+        textPaint.setTextSize(13 * density);
+        final float textY = radius - (textPaint.descent() + textPaint.ascent()) / 2;
+        canvas.drawText(label, radius, textY, textPaint);
+
+        return bitmap;
+    }
+}
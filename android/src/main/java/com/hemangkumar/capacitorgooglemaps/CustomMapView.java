@@ -3,7 +3,14 @@ package com.hemangkumar.capacitorgooglemaps;
 import android.Manifest;
 import android.annotation.SuppressLint;
 import android.content.pm.PackageManager;
+import android.graphics.Point;
+import android.graphics.Rect;
 import android.location.Location;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.MotionEvent;
+import android.view.View;
 import android.view.ViewGroup;
 import android.widget.FrameLayout;
 
@@ -13,6 +20,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
 import androidx.core.util.Consumer;
 
+import com.getcapacitor.JSArray;
 import com.getcapacitor.JSObject;
 import com.google.android.libraries.maps.CameraUpdate;
 import com.google.android.libraries.maps.CameraUpdateFactory;
@@ -23,11 +31,25 @@ import com.google.android.libraries.maps.OnMapReadyCallback;
 import com.google.android.libraries.maps.UiSettings;
 import com.google.android.libraries.maps.model.CameraPosition;
 import com.google.android.libraries.maps.model.LatLng;
+import com.google.android.libraries.maps.model.LatLngBounds;
 import com.google.android.libraries.maps.model.Marker;
+import com.google.android.libraries.maps.model.MarkerOptions;
 import com.google.android.libraries.maps.model.PointOfInterest;
-
+import com.google.android.libraries.maps.model.TileOverlay;
+import com.google.android.libraries.maps.model.TileOverlayOptions;
+import com.google.android.libraries.maps.model.TileProvider;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 public class CustomMapView
         implements OnMapReadyCallback,
@@ -44,67 +66,90 @@ public class CustomMapView
         GoogleMap.OnCameraMoveListener,
         GoogleMap.OnCameraIdleListener
 {
+    private static final String TAG = "CustomMapView";
+
     private final AppCompatActivity activity;
     private final CustomMapViewEvents customMapViewEvents;
+    private final Executor backgroundExecutor;
 
     private final String id;
 
     MapView mapView;
     GoogleMap googleMap;
-
-    private HashMap<String, Marker> markers = new HashMap<>();
+    // whether `mapView` has been taken from a MapViewPool, so its GoogleMapOptions have not been applied yet
+    private boolean isMapViewReused = false;
+    // whether `mapView` shows a non-interactive bitmap instead of a full map, which cannot be changed afterwards
+    private boolean isLiteMode = false;
+
+    // the position of `mapView` within its parent, which is needed for every delegated touch event,
+    // so it is only recomputed when the layout of `mapView` changes
+    private final Rect touchOffset = new Rect();
+    private boolean isTouchOffsetValid = false;
+    private final View.OnLayoutChangeListener mapViewLayoutChangeListener =
+            (view, left, top, right, bottom, oldLeft, oldTop, oldRight, oldBottom) -> isTouchOffsetValid = false;
+
+    // all markers on the map, whether they are shown or not (e.g. because they are part of a cluster)
+    private final LinkedHashMap<String, CustomMarker> customMarkers = new LinkedHashMap<>();
+    // the markers that are actually shown on the map
+    private final HashMap<String, Marker> markers = new HashMap<>();
+    // the state of all markers, from which event payloads are built
+    private final MarkerStore markerStore = new MarkerStore();
+    // moves shown markers to the positions given by `updateMarkerPositions`, with one frame callback for all of them
+    private final MarkerPositionAnimator markerPositionAnimator = new MarkerPositionAnimator(markers);
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // `onCameraMove` is called every frame while the camera moves, which is way too often to cross the bridge each time
+    private final EventThrottler didMoveCameraThrottler = new EventThrottler(mainHandler, this::emitDidMoveCamera);
+    private boolean isCameraPositionIncludedForDidMoveCamera = false;
+
+    // the same goes for `onMarkerDrag`, which additionally might carry a lot of metadata
+    private final EventThrottler didDragMarkerThrottler = new EventThrottler(mainHandler, this::emitDidDragMarker);
+    private float didDragMarkerMinDistance = 0;
+    private boolean isCompactResultForDidDragMarker = false;
+    private Marker draggedMarker;
+    private Point lastDraggedMarkerScreenLocation;
+
+    // the camera path that is being played (see `animateCameraPath`), during which camera events are only sent at the start and the end
+    private CameraPathAnimator cameraPathAnimator;
+
+    // when clustering and/or viewport culling is enabled, only part of `customMarkers` is actually shown,
+    // which is recomputed every time the camera becomes idle
+    private final Runnable markersRefreshRunnable = this::refreshMarkers;
+    private int markersRefreshGeneration = 0;
+
+    private MarkerClusterer markerClusterer;
+    private final ClusterIconFactory clusterIconFactory = new ClusterIconFactory();
+    private final HashMap<String, MarkerClusterer.Cluster> clusters = new HashMap<>();
+    private final HashMap<String, Marker> clusterMarkers = new HashMap<>();
+    // the cluster ids by the ids of their cluster markers, to recognize taps on cluster markers
+    private final HashMap<String, String> clusterIdsByMarkerId = new HashMap<>();
+
+    // polylines and polygons, which show a simplified version of their path for the current zoom level
+    private final LinkedHashMap<String, CustomShape> shapes = new LinkedHashMap<>();
+    // layers of tiles that are rendered or loaded natively, e.g. heatmaps
+    private final HashMap<String, TileOverlay> tileOverlays = new HashMap<>();
+    // the providers of those layers, which may hold resources (e.g. database connections) that have to be closed
+    private final HashMap<String, TileProvider> tileProviders = new HashMap<>();
+
+    private boolean isViewportCullingEnabled = false;
+    private float viewportCullingMargin = DEFAULT_VIEWPORT_CULLING_MARGIN;
+    private final MarkerSpatialIndex markerSpatialIndex = new MarkerSpatialIndex();
 
     String savedCallbackIdForCreate;
 
-    String savedCallbackIdForDidTapInfoWindow;
-
-    String savedCallbackIdForDidCloseInfoWindow;
-
-    String savedCallbackIdForDidTapMap;
-
-    String savedCallbackIdForDidLongPressMap;
-
-    String savedCallbackIdForDidTapMarker;
-    Boolean preventDefaultForDidTapMarker = false;
-
-    String savedCallbackIdForDidBeginDraggingMarker;
-
-    String savedCallbackIdForDidDragMarker;
-
-    String savedCallbackIdForDidEndDraggingMarker;
+    // JS callbacks per event, the corresponding GoogleMap listeners are only set while they are needed
+    private final MapEventListeners eventListeners = new MapEventListeners();
 
-    String savedCallbackIdForDidTapMyLocationButton;
-    Boolean preventDefaultForDidTapMyLocationButton = false;
-
-    String savedCallbackIdForDidTapMyLocationDot;
-
-    String savedCallbackIdForDidTapPoi;
-
-    String savedCallbackIdForDidBeginMovingCamera;
-    String savedCallbackIdForDidMoveCamera;
-    String savedCallbackIdForDidEndMovingCamera;
-
-    public static final String EVENT_DID_TAP_INFO_WINDOW = "didTapInfoWindow";
-    public static final String EVENT_DID_CLOSE_INFO_WINDOW = "didCloseInfoWindow";
-    public static final String EVENT_DID_TAP_MAP = "didTapMap";
-    public static final String EVENT_DID_LONG_PRESS_MAP = "didLongPressMap";
-    public static final String EVENT_DID_TAP_MARKER = "didTapMarker";
-    public static final String EVENT_DID_BEGIN_DRAGGING_MARKER = "didBeginDraggingMarker";
-    public static final String EVENT_DID_DRAG_MARKER = "didDragMarker";
-    public static final String EVENT_DID_END_DRAGGING_MARKER = "didEndDraggingMarker";
-    public static final String EVENT_DID_TAP_MY_LOCATION_BUTTON = "didTapMyLocationButton";
-    public static final String EVENT_DID_TAP_MY_LOCATION_DOT = "didTapMyLocationDot";
-    public static final String EVENT_DID_TAP_POI = "didTapPoi";
-    public static final String EVENT_DID_BEGIN_MOVING_CAMERA = "didBeginMovingCamera";
-    public static final String EVENT_DID_MOVE_CAMERA = "didMoveCamera";
-    public static final String EVENT_DID_END_MOVING_CAMERA = "didEndMovingCamera";
+    public static final float DEFAULT_VIEWPORT_CULLING_MARGIN = 0.5f;
 
     public MapCameraPosition mapCameraPosition;
     public MapPreferences mapPreferences;
 
-    public CustomMapView(@NonNull AppCompatActivity activity, CustomMapViewEvents customMapViewEvents) {
+    public CustomMapView(@NonNull AppCompatActivity activity, CustomMapViewEvents customMapViewEvents, @NonNull Executor backgroundExecutor) {
         this.activity = activity;
         this.customMapViewEvents = customMapViewEvents;
+        this.backgroundExecutor = backgroundExecutor;
         this.id = UUID.randomUUID().toString();
     }
 
@@ -122,6 +167,12 @@ public class CustomMapView
         // populate `googleMap` variable for other methods to use
         this.googleMap = googleMap;
 
+        if (isMapViewReused) {
+            // the options this map has been created with are of a previous map (or the defaults), so apply them all
+            this.googleMap.moveCamera(CameraUpdateFactory.newCameraPosition(this.mapCameraPosition.cameraPosition));
+            invalidateMap();
+        }
+
         // set controls
         UiSettings googleMapUISettings = this.googleMap.getUiSettings();
         googleMapUISettings.setIndoorLevelPickerEnabled(this.mapPreferences.controls.getBoolean(MapPreferencesControls.INDOOR_LEVEL_PICKER_KEY));
@@ -136,6 +187,9 @@ public class CustomMapView
         }
         this.googleMap.setTrafficEnabled(this.mapPreferences.appearance.isTrafficShown);
 
+        // set listeners that have been added before the map was ready
+        updateGoogleMapListeners();
+
 
         // execute callback
         if (customMapViewEvents != null && savedCallbackIdForCreate != null) {
@@ -146,96 +200,167 @@ public class CustomMapView
 
     @Override
     public void onInfoWindowClick(Marker marker) {
-        if (customMapViewEvents != null && savedCallbackIdForDidTapInfoWindow != null) {
-            JSObject result = CustomMarker.getResultForMarker(marker, this.id);
-            customMapViewEvents.resultForCallbackId(savedCallbackIdForDidTapInfoWindow, result);
+        if (eventListeners.has(MapEvent.DID_TAP_INFO_WINDOW)) {
+            JSObject result = getResultForMarker(marker);
+            emit(MapEvent.DID_TAP_INFO_WINDOW, result);
         }
     }
 
     @Override
     public void onInfoWindowClose(Marker marker) {
-        if (customMapViewEvents != null && savedCallbackIdForDidCloseInfoWindow != null) {
-            JSObject result = CustomMarker.getResultForMarker(marker, this.id);
-            customMapViewEvents.resultForCallbackId(savedCallbackIdForDidCloseInfoWindow, result);
+        if (eventListeners.has(MapEvent.DID_CLOSE_INFO_WINDOW)) {
+            JSObject result = getResultForMarker(marker);
+            emit(MapEvent.DID_CLOSE_INFO_WINDOW, result);
         }
     }
 
     @Override
     public void onMapClick(LatLng latLng) {
-        if (customMapViewEvents != null && savedCallbackIdForDidTapMap != null) {
+        if (eventListeners.has(MapEvent.DID_TAP_MAP)) {
             JSObject result = getResultForPosition(latLng);
-            customMapViewEvents.resultForCallbackId(savedCallbackIdForDidTapMap, result);
+            emit(MapEvent.DID_TAP_MAP, result);
         }
     }
 
     @Override
     public void onMapLongClick(LatLng latLng) {
-        if (customMapViewEvents != null && savedCallbackIdForDidLongPressMap != null) {
+        if (eventListeners.has(MapEvent.DID_LONG_PRESS_MAP)) {
             JSObject result = getResultForPosition(latLng);
-            customMapViewEvents.resultForCallbackId(savedCallbackIdForDidLongPressMap, result);
+            emit(MapEvent.DID_LONG_PRESS_MAP, result);
         }
     }
 
     @Override
     public boolean onMarkerClick(Marker marker) {
-        if (customMapViewEvents != null && savedCallbackIdForDidTapMarker != null) {
-            JSObject result = CustomMarker.getResultForMarker(marker, this.id);
-            customMapViewEvents.resultForCallbackId(savedCallbackIdForDidTapMarker, result);
+        String clusterId = getClusterIdForMarker(marker);
+        if (clusterId != null) {
+            if (eventListeners.has(MapEvent.DID_TAP_CLUSTER)) {
+                JSObject result = getResultForCluster(clusterId, marker);
+                emit(MapEvent.DID_TAP_CLUSTER, result);
+            }
+            return eventListeners.isDefaultPrevented(MapEvent.DID_TAP_CLUSTER);
+        }
+
+        if (eventListeners.has(MapEvent.DID_TAP_MARKER)) {
+            JSObject result = getResultForMarker(marker);
+            emit(MapEvent.DID_TAP_MARKER, result);
         }
-        return preventDefaultForDidTapMarker;
+        return eventListeners.isDefaultPrevented(MapEvent.DID_TAP_MARKER);
     }
 
     @Override
     public void onMarkerDragStart(Marker marker) {
-        if (customMapViewEvents != null && savedCallbackIdForDidBeginDraggingMarker != null) {
-            JSObject result = CustomMarker.getResultForMarker(marker, this.id);
-            customMapViewEvents.resultForCallbackId(savedCallbackIdForDidBeginDraggingMarker, result);
+        didDragMarkerThrottler.cancel();
+        draggedMarker = marker;
+        // the user takes over, so the marker should not be moved any further
+        int handle = markerStore.getHandle(marker);
+        if (handle != MarkerStore.NO_HANDLE) {
+            markerPositionAnimator.cancel(markerStore.getMarkerId(handle));
+        }
+        lastDraggedMarkerScreenLocation = didDragMarkerMinDistance > 0
+                ? googleMap.getProjection().toScreenLocation(marker.getPosition())
+                : null;
+
+        if (eventListeners.has(MapEvent.DID_BEGIN_DRAGGING_MARKER)) {
+            JSObject result = getResultForMarker(marker);
+            emit(MapEvent.DID_BEGIN_DRAGGING_MARKER, result);
         }
     }
 
     @Override
     public void onMarkerDrag(Marker marker) {
-        if (customMapViewEvents != null && savedCallbackIdForDidDragMarker != null) {
-            JSObject result = CustomMarker.getResultForMarker(marker, this.id);
-            customMapViewEvents.resultForCallbackId(savedCallbackIdForDidDragMarker, result);
+        if (eventListeners.has(MapEvent.DID_DRAG_MARKER)) {
+            draggedMarker = marker;
+
+            if (didDragMarkerMinDistance > 0 && lastDraggedMarkerScreenLocation != null) {
+                Point screenLocation = googleMap.getProjection().toScreenLocation(marker.getPosition());
+                double distance = Math.hypot(
+                        screenLocation.x - lastDraggedMarkerScreenLocation.x,
+                        screenLocation.y - lastDraggedMarkerScreenLocation.y
+                );
+                if (distance < getScaledPixels(didDragMarkerMinDistance)) {
+                    return;
+                }
+            }
+
+            didDragMarkerThrottler.submit();
+        }
+    }
+
+    private void emitDidDragMarker() {
+        if (eventListeners.has(MapEvent.DID_DRAG_MARKER) && draggedMarker != null) {
+            if (didDragMarkerMinDistance > 0) {
+                lastDraggedMarkerScreenLocation = googleMap.getProjection().toScreenLocation(draggedMarker.getPosition());
+            }
+
+            JSObject result = isCompactResultForDidDragMarker
+                    ? getCompactResultForMarker(draggedMarker)
+                    : getResultForMarker(draggedMarker);
+            emit(MapEvent.DID_DRAG_MARKER, result);
         }
     }
 
     @Override
     public void onMarkerDragEnd(Marker marker) {
-        if (customMapViewEvents != null && savedCallbackIdForDidEndDraggingMarker != null) {
-            JSObject result = CustomMarker.getResultForMarker(marker, this.id);
-            customMapViewEvents.resultForCallbackId(savedCallbackIdForDidEndDraggingMarker, result);
+        // the end event contains the complete marker, so pending drag events are not needed anymore
+        didDragMarkerThrottler.cancel();
+        draggedMarker = null;
+        lastDraggedMarkerScreenLocation = null;
+
+        // keep track of the new position, in case the marker has to be shown again later on (e.g. after clustering)
+        int handle = markerStore.getHandle(marker);
+        if (handle != MarkerStore.NO_HANDLE) {
+            markerStore.setPosition(handle, marker.getPosition());
+            CustomMarker customMarker = customMarkers.get(markerStore.getMarkerId(handle));
+            if (customMarker != null) {
+                removeFromSpatialIndex(customMarker);
+                customMarker.setPosition(marker.getPosition());
+                addToSpatialIndex(customMarker);
+            }
+        }
+
+        if (eventListeners.has(MapEvent.DID_END_DRAGGING_MARKER)) {
+            JSObject result = getResultForMarker(marker);
+            emit(MapEvent.DID_END_DRAGGING_MARKER, result);
         }
     }
 
     @Override
     public boolean onMyLocationButtonClick() {
-        if (customMapViewEvents != null && savedCallbackIdForDidTapMyLocationButton != null) {
-            customMapViewEvents.resultForCallbackId(savedCallbackIdForDidTapMyLocationButton, null);
+        if (eventListeners.has(MapEvent.DID_TAP_MY_LOCATION_BUTTON)) {
+            emit(MapEvent.DID_TAP_MY_LOCATION_BUTTON, null);
         }
-        return preventDefaultForDidTapMyLocationButton;
+        return eventListeners.isDefaultPrevented(MapEvent.DID_TAP_MY_LOCATION_BUTTON);
     }
 
     @Override
     public void onMyLocationClick(@NonNull Location location) {
-        if (customMapViewEvents != null && savedCallbackIdForDidTapMyLocationDot != null) {
+        if (eventListeners.has(MapEvent.DID_TAP_MY_LOCATION_DOT)) {
             JSObject result = getResultForPosition(location);
-            customMapViewEvents.resultForCallbackId(savedCallbackIdForDidTapMyLocationDot, result);
+            emit(MapEvent.DID_TAP_MY_LOCATION_DOT, result);
         }
     }
 
     @Override
     public void onPoiClick(PointOfInterest pointOfInterest) {
-        if (customMapViewEvents != null && savedCallbackIdForDidTapPoi != null) {
+        if (eventListeners.has(MapEvent.DID_TAP_POI)) {
             JSObject result = getResultForPoi(pointOfInterest);
-            customMapViewEvents.resultForCallbackId(savedCallbackIdForDidTapPoi, result);
+            emit(MapEvent.DID_TAP_POI, result);
         }
     }
 
     @Override
     public void onCameraMoveStarted(int i) {
-        if (customMapViewEvents != null && savedCallbackIdForDidBeginMovingCamera != null) {
+        if (isAnimatingCameraPath()) {
+            if (i != REASON_GESTURE) {
+                // caused by the animation itself
+                return;
+            }
+            // the user takes over
+            cameraPathAnimator.cancel();
+        }
+
+        if (eventListeners.has(MapEvent.DID_BEGIN_MOVING_CAMERA)) {
             int reason = 2;
             if (i == REASON_GESTURE) {
                 // Camera motion initiated in response to user gestures on the map.
@@ -244,21 +369,52 @@ public class CustomMapView
             }
             JSObject result = new JSObject();
             result.put("reason", reason);
-            customMapViewEvents.resultForCallbackId(savedCallbackIdForDidBeginMovingCamera, result);
+            emit(MapEvent.DID_BEGIN_MOVING_CAMERA, result);
         }
     }
 
     @Override
     public void onCameraMove() {
-        if (customMapViewEvents != null && savedCallbackIdForDidMoveCamera != null) {
-            customMapViewEvents.resultForCallbackId(savedCallbackIdForDidMoveCamera, null);
+        if (eventListeners.has(MapEvent.DID_MOVE_CAMERA)) {
+            didMoveCameraThrottler.submit();
+        }
+    }
+
+    private void emitDidMoveCamera() {
+        if (eventListeners.has(MapEvent.DID_MOVE_CAMERA)) {
+            JSObject result = isCameraPositionIncludedForDidMoveCamera ? getResultForCameraMove() : null;
+            emit(MapEvent.DID_MOVE_CAMERA, result);
         }
     }
 
     @Override
     public void onCameraIdle() {
-        if (customMapViewEvents != null && savedCallbackIdForDidEndMovingCamera != null) {
-            customMapViewEvents.resultForCallbackId(savedCallbackIdForDidEndMovingCamera, this.getResultForCameraPosition(new JSObject()));
+        if (isAnimatingCameraPath()) {
+            // the camera only stops between two frames of the animation
+            return;
+        }
+
+        if (isMarkersManaged()) {
+            scheduleMarkersRefresh();
+        }
+
+        if (!shapes.isEmpty()) {
+            refreshShapes();
+        }
+
+        // the last move should arrive before the end of the movement
+        didMoveCameraThrottler.flush();
+
+        if (eventListeners.has(MapEvent.DID_END_MOVING_CAMERA)) {
+            emit(MapEvent.DID_END_MOVING_CAMERA, this.getResultForCameraPosition(new JSObject()));
+        }
+    }
+
+    private void emit(MapEvent mapEvent, @Nullable JSObject result) {
+        if (customMapViewEvents != null) {
+            for (String callbackId : eventListeners.getCallbackIds(mapEvent)) {
+                customMapViewEvents.resultForCallbackId(callbackId, result);
+            }
         }
     }
 
@@ -287,77 +443,127 @@ public class CustomMapView
     }
 
     protected void handleOnDestroy() {
+        cancelCameraPath();
         if (mapView != null) {
             mapView.onDestroy();
         }
+        mainHandler.removeCallbacks(markersRefreshRunnable);
+        didMoveCameraThrottler.cancel();
+        didDragMarkerThrottler.cancel();
     }
 
-    public void setCallbackIdForEvent(String callbackId, String eventName, Boolean preventDefault) {
-        if (callbackId != null && eventName != null) {
-            if (eventName.equals(CustomMapView.EVENT_DID_TAP_INFO_WINDOW)) {
-                this.googleMap.setOnInfoWindowClickListener(this);
-                savedCallbackIdForDidTapInfoWindow = callbackId;
-            } else if (eventName.equals(CustomMapView.EVENT_DID_CLOSE_INFO_WINDOW)) {
-                this.googleMap.setOnInfoWindowCloseListener(this);
-                savedCallbackIdForDidCloseInfoWindow = callbackId;
-            } else if (eventName.equals(CustomMapView.EVENT_DID_TAP_MAP)) {
-                this.googleMap.setOnMapClickListener(this);
-                savedCallbackIdForDidTapMap = callbackId;
-            } else if (eventName.equals(CustomMapView.EVENT_DID_LONG_PRESS_MAP)) {
-                this.googleMap.setOnMapLongClickListener(this);
-                savedCallbackIdForDidLongPressMap = callbackId;
-            } else if (eventName.equals(CustomMapView.EVENT_DID_TAP_MARKER)) {
-                this.googleMap.setOnMarkerClickListener(this);
-                savedCallbackIdForDidTapMarker = callbackId;
-                if (preventDefault == null) {
-                    preventDefault = false;
-                }
-                preventDefaultForDidTapMarker = preventDefault;
-            } else if (eventName.equals(CustomMapView.EVENT_DID_BEGIN_DRAGGING_MARKER)) {
-                this.googleMap.setOnMarkerDragListener(this);
-                savedCallbackIdForDidBeginDraggingMarker = callbackId;
-            } else if (eventName.equals(CustomMapView.EVENT_DID_DRAG_MARKER)) {
-                this.googleMap.setOnMarkerDragListener(this);
-                savedCallbackIdForDidDragMarker = callbackId;
-            } else if (eventName.equals(CustomMapView.EVENT_DID_END_DRAGGING_MARKER)) {
-                this.googleMap.setOnMarkerDragListener(this);
-                savedCallbackIdForDidEndDraggingMarker = callbackId;
-            } else if (eventName.equals(CustomMapView.EVENT_DID_TAP_MY_LOCATION_BUTTON)) {
-                this.googleMap.setOnMyLocationButtonClickListener(this);
-                savedCallbackIdForDidTapMyLocationButton = callbackId;
-                if (preventDefault == null) {
-                    preventDefault = false;
-                }
-                preventDefaultForDidTapMyLocationButton = preventDefault;
-            } else if (eventName.equals(CustomMapView.EVENT_DID_TAP_MY_LOCATION_DOT)) {
-                this.googleMap.setOnMyLocationClickListener(this);
-                savedCallbackIdForDidTapMyLocationDot = callbackId;
-            } else if (eventName.equals((CustomMapView.EVENT_DID_TAP_POI))) {
-                this.googleMap.setOnPoiClickListener(this);
-                savedCallbackIdForDidTapPoi = callbackId;
-            } else if (eventName.equals((CustomMapView.EVENT_DID_BEGIN_MOVING_CAMERA))) {
-                this.googleMap.setOnCameraMoveStartedListener(this);
-                savedCallbackIdForDidBeginMovingCamera = callbackId;
-            } else if (eventName.equals((CustomMapView.EVENT_DID_MOVE_CAMERA))) {
-                this.googleMap.setOnCameraMoveListener(this);
-                savedCallbackIdForDidMoveCamera = callbackId;
-            } else if (eventName.equals((CustomMapView.EVENT_DID_END_MOVING_CAMERA))) {
-                this.googleMap.setOnCameraIdleListener(this);
-                savedCallbackIdForDidEndMovingCamera = callbackId;
-            }
+    /**
+     * @param maxEventRate the maximum number of `didMoveCamera` events per second, or 0 for an event every frame
+     * @param includeCameraPosition whether the events should contain the camera position and visible bounds
+     */
+    public void setDidMoveCameraOptions(float maxEventRate, boolean includeCameraPosition) {
+        didMoveCameraThrottler.setMaxEventRate(maxEventRate);
+        isCameraPositionIncludedForDidMoveCamera = includeCameraPosition;
+    }
+
+    /**
+     * @param minInterval the minimum time in milliseconds between two `didDragMarker` events, or 0 for an event every frame
+     * @param minDistance the minimum distance in density independent pixels the marker should have moved since the previous event
+     * @param compactResult whether the events should only contain the id and position of the marker
+     */
+    public void setDidDragMarkerOptions(long minInterval, float minDistance, boolean compactResult) {
+        didDragMarkerThrottler.setMinInterval(minInterval);
+        didDragMarkerMinDistance = Math.max(0, minDistance);
+        isCompactResultForDidDragMarker = compactResult;
+    }
+
+    public void addEventListener(@NonNull MapEvent mapEvent, @NonNull String callbackId, boolean preventDefault) {
+        eventListeners.add(mapEvent, callbackId, preventDefault);
+        updateGoogleMapListeners();
+    }
+
+    /**
+     * @return whether a listener with the given callback id existed
+     */
+    public boolean removeEventListener(@NonNull String callbackId) {
+        MapEvent mapEvent = eventListeners.remove(callbackId);
+        if (mapEvent == null) {
+            return false;
+        }
+        if (mapEvent == MapEvent.DID_MOVE_CAMERA && !eventListeners.has(MapEvent.DID_MOVE_CAMERA)) {
+            didMoveCameraThrottler.cancel();
+        } else if (mapEvent == MapEvent.DID_DRAG_MARKER && !eventListeners.has(MapEvent.DID_DRAG_MARKER)) {
+            didDragMarkerThrottler.cancel();
         }
+        updateGoogleMapListeners();
+        return true;
+    }
+
+    /**
+     * Removes all listeners, e.g. because the map is removed.
+     *
+     * @return the callback ids of the removed listeners
+     */
+    @NonNull
+    public List<String> removeAllEventListeners() {
+        List<String> callbackIds = eventListeners.removeAll();
+        didMoveCameraThrottler.cancel();
+        didDragMarkerThrottler.cancel();
+        updateGoogleMapListeners();
+        return callbackIds;
+    }
+
+    /**
+     * Only sets the GoogleMap listeners that are needed by either a JS listener or the map itself (e.g. for clustering),
+     * so the map does not do any work for events nobody is interested in.
+     */
+    private void updateGoogleMapListeners() {
+        if (googleMap == null) {
+            return;
+        }
+
+        googleMap.setOnInfoWindowClickListener(eventListeners.has(MapEvent.DID_TAP_INFO_WINDOW) ? this : null);
+        googleMap.setOnInfoWindowCloseListener(eventListeners.has(MapEvent.DID_CLOSE_INFO_WINDOW) ? this : null);
+        googleMap.setOnMapClickListener(eventListeners.has(MapEvent.DID_TAP_MAP) ? this : null);
+        googleMap.setOnMapLongClickListener(eventListeners.has(MapEvent.DID_LONG_PRESS_MAP) ? this : null);
+        googleMap.setOnMarkerClickListener(
+                eventListeners.has(MapEvent.DID_TAP_MARKER) || eventListeners.has(MapEvent.DID_TAP_CLUSTER) ? this : null
+        );
+        // when markers are managed, the positions of dragged markers should be kept up to date
+        googleMap.setOnMarkerDragListener(
+                eventListeners.has(MapEvent.DID_BEGIN_DRAGGING_MARKER)
+                        || eventListeners.has(MapEvent.DID_DRAG_MARKER)
+                        || eventListeners.has(MapEvent.DID_END_DRAGGING_MARKER)
+                        || isMarkersManaged() ? this : null
+        );
+        googleMap.setOnMyLocationButtonClickListener(eventListeners.has(MapEvent.DID_TAP_MY_LOCATION_BUTTON) ? this : null);
+        googleMap.setOnMyLocationClickListener(eventListeners.has(MapEvent.DID_TAP_MY_LOCATION_DOT) ? this : null);
+        googleMap.setOnPoiClickListener(eventListeners.has(MapEvent.DID_TAP_POI) ? this : null);
+        // while a camera path is played, a gesture of the user should cancel it
+        googleMap.setOnCameraMoveStartedListener(eventListeners.has(MapEvent.DID_BEGIN_MOVING_CAMERA) || isAnimatingCameraPath() ? this : null);
+        googleMap.setOnCameraMoveListener(eventListeners.has(MapEvent.DID_MOVE_CAMERA) ? this : null);
+        // when markers are managed, the shown markers are recomputed every time the camera becomes idle,
+        // and so are the paths of shapes
+        googleMap.setOnCameraIdleListener(
+                eventListeners.has(MapEvent.DID_END_MOVING_CAMERA) || isMarkersManaged() || !shapes.isEmpty() ? this : null
+        );
     }
 
-    public void createMap(String callbackId, BoundingRect boundingRect, MapCameraPosition mapCameraPosition, MapPreferences mapPreferences) {
+    /**
+     * @param pooledMapView a MapView that has been created and started already (see `MapViewPool`),
+     *                      or null to create a new one
+     */
+    public void createMap(String callbackId, BoundingRect boundingRect, MapCameraPosition mapCameraPosition, MapPreferences mapPreferences, @Nullable MapView pooledMapView) {
         savedCallbackIdForCreate = callbackId;
 
         this.mapCameraPosition = mapCameraPosition;
         this.mapPreferences = mapPreferences;
+        this.isLiteMode = mapPreferences.isLiteMode;
 
-        GoogleMapOptions googleMapOptions = this.mapPreferences.generateGoogleMapOptions();
-        googleMapOptions.camera(this.mapCameraPosition.cameraPosition);
+        if (pooledMapView != null) {
+            mapView = pooledMapView;
+            isMapViewReused = true;
+        } else {
+            GoogleMapOptions googleMapOptions = this.mapPreferences.generateGoogleMapOptions();
+            googleMapOptions.camera(this.mapCameraPosition.cameraPosition);
 
-        mapView = new MapView(activity, googleMapOptions);
+            mapView = new MapView(activity, googleMapOptions);
+        }
 
         FrameLayout.LayoutParams lp = new FrameLayout.LayoutParams(getScaledPixels(boundingRect.width), getScaledPixels(boundingRect.height));
         lp.topMargin = getScaledPixels(boundingRect.y);
@@ -365,11 +571,59 @@ public class CustomMapView
 
         mapView.setLayoutParams(lp);
 
-        mapView.onCreate(null);
-        mapView.onStart();
+        if (!isMapViewReused) {
+            mapView.onCreate(null);
+            mapView.onStart();
+        }
         mapView.getMapAsync(this);
     }
 
+    /**
+     * Releases everything of this map, which should have been removed from its parent view already (see `removeFromView`).
+     * Its MapView is reset and kept by the given pool, so a next map can reuse it,
+     * otherwise (e.g. when the pool is full) it is destroyed.
+     */
+    @SuppressLint("MissingPermission")
+    public void release(@Nullable MapViewPool mapViewPool) {
+        cancelCameraPath();
+        mainHandler.removeCallbacks(markersRefreshRunnable);
+        markersRefreshGeneration++;
+        didMoveCameraThrottler.cancel();
+        didDragMarkerThrottler.cancel();
+        draggedMarker = null;
+        markerPositionAnimator.cancelAll();
+        closeTileProviders();
+
+        if (mapView == null) {
+            return;
+        }
+
+        // a MapView of which the map is not ready yet cannot be reset, and a lite mode MapView cannot be reused for a full map
+        if (mapViewPool != null && googleMap != null && !isLiteMode) {
+            clear();
+            markerClusterer = null;
+            isViewportCullingEnabled = false;
+            eventListeners.removeAll();
+            updateGoogleMapListeners();
+
+            if (hasPermission()) {
+                googleMap.setMyLocationEnabled(false);
+            }
+            googleMap.setTrafficEnabled(false);
+            googleMap.setMapStyle(null);
+
+            if (mapViewPool.release(mapView)) {
+                mapView = null;
+                googleMap = null;
+                return;
+            }
+        }
+
+        mapView.onDestroy();
+        mapView = null;
+        googleMap = null;
+    }
+
     @SuppressLint("MissingPermission")
     public JSObject invalidateMap() {
         if (this.googleMap == null) {
@@ -417,6 +671,9 @@ public class CustomMapView
     }
 
     public void moveCamera(Integer duration) {
+        // an explicit camera movement replaces the path that is being played
+        cancelCameraPath();
+
         CameraUpdate cameraUpdate = CameraUpdateFactory.newCameraPosition(this.mapCameraPosition.cameraPosition);
 
         if (duration == null || duration <= 0) {
@@ -426,6 +683,52 @@ public class CustomMapView
         }
     }
 
+    /**
+     * Moves the camera along the given keyframes, starting at the current camera position.
+     * A path that is still being played is cancelled first.
+     *
+     * @param onEnd called once, with true when the last keyframe has been reached,
+     *              or false when it has been cancelled (e.g. by a gesture of the user, `moveCamera` or another path)
+     */
+    public void animateCameraPath(List<CameraPathAnimator.Keyframe> keyframes, @NonNull Consumer<Boolean> onEnd) {
+        cancelCameraPath();
+
+        if (googleMap == null) {
+            onEnd.accept(false);
+            return;
+        }
+
+        final CameraPathAnimator animator = new CameraPathAnimator(googleMap, keyframes, isFinished -> {
+            if (cameraPathAnimator != null && !cameraPathAnimator.isRunning()) {
+                cameraPathAnimator = null;
+                updateGoogleMapListeners();
+                // the camera events that have been held back during the animation
+                onCameraIdle();
+            }
+            onEnd.accept(isFinished);
+        });
+        cameraPathAnimator = animator;
+        updateGoogleMapListeners();
+
+        if (eventListeners.has(MapEvent.DID_BEGIN_MOVING_CAMERA)) {
+            JSObject result = new JSObject();
+            result.put("reason", 2);
+            emit(MapEvent.DID_BEGIN_MOVING_CAMERA, result);
+        }
+
+        animator.start();
+    }
+
+    private boolean isAnimatingCameraPath() {
+        return cameraPathAnimator != null && cameraPathAnimator.isRunning();
+    }
+
+    private void cancelCameraPath() {
+        if (cameraPathAnimator != null) {
+            cameraPathAnimator.cancel();
+        }
+    }
+
     private int getScaledPixels(float pixels) {
         // Get the screen's density scale
         final float scale = activity.getResources().getDisplayMetrics().density;
@@ -435,40 +738,708 @@ public class CustomMapView
 
     public void addToView(ViewGroup parent) {
         parent.addView(mapView);
+        mapView.addOnLayoutChangeListener(mapViewLayoutChangeListener);
+        isTouchOffsetValid = false;
     }
 
     public void removeFromView(ViewGroup parent) {
+        mapView.removeOnLayoutChangeListener(mapViewLayoutChangeListener);
         parent.removeView(mapView);
+        isTouchOffsetValid = false;
+    }
+
+    /**
+     * Delegates a touch event to the map.
+     *
+     * @param event a touch event in the coordinates of `parent`, which is left untouched
+     * @param parent the view the map has been added to (see `addToView`)
+     */
+    public void dispatchTouchEvent(MotionEvent event, ViewGroup parent) {
+        if (!isTouchOffsetValid) {
+            // returns the visible bounds
+            mapView.getDrawingRect(touchOffset);
+            // calculates the relative coordinates to the parent
+            parent.offsetDescendantRectToMyCoords(mapView, touchOffset);
+            isTouchOffsetValid = true;
+        }
+
+        // Offset the location (of all pointers),
+        // because if a map is positioned with a different top and left point than the WebView,
+        // that should be accounted for.
+        event.offsetLocation(-touchOffset.left, -touchOffset.top);
+        mapView.dispatchTouchEvent(event);
+        event.offsetLocation(touchOffset.left, touchOffset.top);
     }
 
     public void clear() {
         googleMap.clear();
+        markerPositionAnimator.cancelAll();
         markers.clear();
+        customMarkers.clear();
+        markerStore.clear();
+        clusterMarkers.clear();
+        clusterIdsByMarkerId.clear();
+        clusters.clear();
+        markerSpatialIndex.clear();
+        shapes.clear();
+        tileOverlays.clear();
+        closeTileProviders();
+        updateGoogleMapListeners();
     }
 
-    public void addMarker(CustomMarker customMarker, @Nullable Consumer<Marker> consumer) {
-        customMarker.addToMap(
+    public void addMarker(CustomMarker customMarker, @Nullable Consumer<JSObject> resultConsumer) {
+        customMarker.prepare(
             activity,
-            googleMap,
-            (marker) -> {
-                markers.put(customMarker.markerId, marker);
+            () -> {
+                Marker marker = addPreparedMarker(customMarker);
 
-                if (consumer != null) {
-                    consumer.accept(marker);
+                if (resultConsumer != null) {
+                    resultConsumer.accept(getResultForMarker(customMarker, marker));
                 }
             }
         );
     }
 
+    public void prepareMarker(CustomMarker customMarker, @NonNull Runnable onPrepared) {
+        customMarker.prepare(activity, onPrepared);
+    }
+
+    /**
+     * Adds a marker of which the icon has already been loaded.
+     *
+     * @return the Marker that has been added to the map,
+     * or null if it is not shown (yet) because clustering or viewport culling decides whether it should be shown
+     */
+    @Nullable
+    public Marker addPreparedMarker(CustomMarker customMarker) {
+        putCustomMarker(customMarker);
+        // a marker with the same (caller-provided) id might have been replaced
+        removeMaterializedMarker(customMarker.markerId);
+
+        if (isMarkersManaged()) {
+            scheduleMarkersRefresh();
+            return null;
+        }
+
+        return materializeMarker(customMarker);
+    }
+
+    /**
+     * Makes the markers on this map equal to the given set of markers.
+     * Markers that do not exist yet are added, markers that are not part of the given set are removed,
+     * and markers that already exist are only updated (in place) when something has changed.
+     * Markers are matched by their `markerId`.
+     */
+    public void setMarkers(Collection<CustomMarker> newCustomMarkers, MarkersAppender.InsertionOptions insertionOptions, Consumer<JSObject> resultConsumer) {
+        final JSArray addedIds = new JSArray();
+        final JSArray updatedIds = new JSArray();
+        final JSArray removedIds = new JSArray();
+
+        final HashMap<String, CustomMarker> desiredMarkers = new HashMap<>();
+        for (CustomMarker customMarker : newCustomMarkers) {
+            desiredMarkers.put(customMarker.markerId, customMarker);
+        }
+
+        // remove markers that should not exist anymore
+        Iterator<String> iterator = customMarkers.keySet().iterator();
+        while (iterator.hasNext()) {
+            String markerId = iterator.next();
+            if (!desiredMarkers.containsKey(markerId)) {
+                removeFromSpatialIndex(customMarkers.get(markerId));
+                iterator.remove();
+                removeMaterializedMarker(markerId);
+                markerStore.remove(markerId);
+                removedIds.put(markerId);
+            }
+        }
+
+        // update markers that already exist, and collect the ones that should be added
+        final List<CustomMarker> markersToAdd = new ArrayList<>();
+        for (CustomMarker customMarker : desiredMarkers.values()) {
+            final CustomMarker existingCustomMarker = customMarkers.get(customMarker.markerId);
+            if (existingCustomMarker == null) {
+                markersToAdd.add(customMarker);
+                continue;
+            }
+
+            final boolean isIconChanged = !customMarker.hasSameIcon(existingCustomMarker);
+            final boolean isChanged = !customMarker.hasSameState(existingCustomMarker);
+            if (!isIconChanged) {
+                customMarker.copyIconFrom(existingCustomMarker);
+            }
+            putCustomMarker(customMarker);
+
+            final Marker marker = markers.get(customMarker.markerId);
+            if (marker != null) {
+                customMarker.applyToMarker(marker, existingCustomMarker);
+                if (isIconChanged) {
+                    customMarker.prepare(activity, () -> {
+                        // the marker might have been removed or replaced in the meantime
+                        if (markers.get(customMarker.markerId) == marker) {
+                            marker.setIcon(customMarker.getIcon());
+                        }
+                    });
+                }
+            } else if (isIconChanged) {
+                // not shown at the moment, but it should have its icon once it will be shown
+                customMarker.prepare(activity, () -> {});
+            }
+            if (isChanged || isIconChanged) {
+                updatedIds.put(customMarker.markerId);
+            }
+        }
+
+        if (isMarkersManaged()) {
+            scheduleMarkersRefresh();
+        }
+
+        final MarkersFrameInserter inserter = new MarkersFrameInserter(
+                this,
+                markersToAdd.size(),
+                insertionOptions.maxMarkersPerFrame,
+                insertionOptions.frameBudgetMs,
+                (index, customMarker, marker) -> addedIds.put(customMarker.markerId),
+                () -> {
+                    JSObject result = new JSObject();
+                    result.put("mapId", id);
+                    result.put("added", addedIds);
+                    result.put("updated", updatedIds);
+                    result.put("removed", removedIds);
+                    resultConsumer.accept(result);
+                }
+        );
+        for (int i = 0; i < markersToAdd.size(); i++) {
+            final int index = i;
+            final CustomMarker customMarker = markersToAdd.get(i);
+            customMarker.prepare(activity, () -> inserter.enqueue(index, customMarker));
+        }
+    }
+
     public void removeMarker(String markerId) {
-        Marker marker = markers.get(markerId);
+        markerPositionAnimator.cancel(markerId);
+        removeFromSpatialIndex(customMarkers.remove(markerId));
+        removeMaterializedMarker(markerId);
+        markerStore.remove(markerId);
+
+        if (isMarkersManaged()) {
+            scheduleMarkersRefresh();
+        }
+    }
+
+    /**
+     * Moves existing markers to new positions, e.g. of vehicles that are being tracked, without re-creating them.
+     * Shown markers move there smoothly in the given duration, markers that are not shown (e.g. because they are
+     * part of a cluster) are only moved in the model, so they show up at their new position once they are shown.
+     *
+     * @param unknownMarkerIds receives the given ids for which no marker exists
+     * @return the number of markers that have been moved
+     */
+    public int updateMarkerPositions(String[] markerIds, double[] latitudes, double[] longitudes, long durationMs, List<String> unknownMarkerIds) {
+        int updatedCount = 0;
+
+        for (int i = 0; i < markerIds.length; i++) {
+            final String markerId = markerIds[i];
+            final CustomMarker customMarker = customMarkers.get(markerId);
+            if (customMarker == null) {
+                unknownMarkerIds.add(markerId);
+                continue;
+            }
+
+            final LatLng position = new LatLng(latitudes[i], longitudes[i]);
+            removeFromSpatialIndex(customMarker);
+            customMarker.setPosition(position);
+            addToSpatialIndex(customMarker);
+            int handle = markerStore.getHandle(markerId);
+            if (handle != MarkerStore.NO_HANDLE) {
+                markerStore.setPosition(handle, position);
+            }
+
+            // a marker that is being dragged stays under the finger of the user, until the drag ends
+            final Marker marker = markers.get(markerId);
+            if (marker != null && !marker.equals(draggedMarker)) {
+                if (durationMs > 0) {
+                    markerPositionAnimator.animate(markerId, marker.getPosition(), position, durationMs);
+                } else {
+                    markerPositionAnimator.cancel(markerId);
+                    marker.setPosition(position);
+                }
+            }
+            updatedCount++;
+        }
+
+        // markers might have moved into (or out of) clusters or the visible region
+        if (updatedCount > 0 && isMarkersManaged()) {
+            scheduleMarkersRefresh();
+        }
+
+        return updatedCount;
+    }
+
+    private void putCustomMarker(CustomMarker customMarker) {
+        // the given position takes precedence over the one the marker was moving to
+        markerPositionAnimator.cancel(customMarker.markerId);
+        removeFromSpatialIndex(customMarkers.put(customMarker.markerId, customMarker));
+        addToSpatialIndex(customMarker);
+        markerStore.put(customMarker);
+    }
+
+    private void addToSpatialIndex(CustomMarker customMarker) {
+        if (isViewportCullingEnabled) {
+            LatLng position = customMarker.getPosition();
+            markerSpatialIndex.insert(new MarkerClusterer.Item(customMarker.markerId, position.latitude, position.longitude));
+        }
+    }
+
+    private void removeFromSpatialIndex(@Nullable CustomMarker customMarker) {
+        if (isViewportCullingEnabled && customMarker != null) {
+            LatLng position = customMarker.getPosition();
+            markerSpatialIndex.remove(customMarker.markerId, position.latitude, position.longitude);
+        }
+    }
+
+    private Marker materializeMarker(CustomMarker customMarker) {
+        Marker marker = customMarker.addPreparedToMap(googleMap);
+        markers.put(customMarker.markerId, marker);
+        markerStore.attach(customMarker.markerId, marker);
+        return marker;
+    }
+
+    private void removeMaterializedMarker(String markerId) {
+        Marker marker = markers.remove(markerId);
 
         if (marker != null) {
+            markerStore.detach(marker);
             marker.remove();
-            markers.remove(markerId);
         }
     }
 
+    public JSObject getResultForMarker(CustomMarker customMarker, @Nullable Marker marker) {
+        int handle = markerStore.getHandle(customMarker.markerId);
+        if (handle == MarkerStore.NO_HANDLE) {
+            // the marker has been removed in the meantime
+            return getResultForUnknownMarker(customMarker.markerId, customMarker.getPosition());
+        }
+        return markerStore.getResult(handle, id, marker != null ? marker.getPosition() : null);
+    }
+
+    private JSObject getResultForMarker(Marker marker) {
+        int handle = markerStore.getHandle(marker);
+        if (handle == MarkerStore.NO_HANDLE) {
+            return getResultForUnknownMarker(marker.getId(), marker.getPosition());
+        }
+        return markerStore.getResult(handle, id, marker.getPosition());
+    }
+
+    private JSObject getCompactResultForMarker(Marker marker) {
+        int handle = markerStore.getHandle(marker);
+        if (handle == MarkerStore.NO_HANDLE) {
+            return getResultForUnknownMarker(marker.getId(), marker.getPosition());
+        }
+        return markerStore.getCompactResult(handle, id, marker.getPosition());
+    }
+
+    /**
+     * The result for a marker that is not part of `markerStore` (anymore),
+     * which only contains the id and position of the marker.
+     */
+    private JSObject getResultForUnknownMarker(String markerId, LatLng position) {
+        JSObject result = new JSObject();
+        JSObject markerResult = new JSObject();
+
+        result.put("marker", markerResult);
+        markerResult.put("mapId", id);
+        markerResult.put("markerId", markerId);
+        markerResult.put("position", getResultForPosition(position).opt("position"));
+
+        return result;
+    }
+
+    public boolean isClusteringEnabled() {
+        return markerClusterer != null;
+    }
+
+    public boolean isViewportCullingEnabled() {
+        return isViewportCullingEnabled;
+    }
+
+    /**
+     * @return whether only part of the markers is shown, as decided by clustering and/or viewport culling
+     */
+    private boolean isMarkersManaged() {
+        return isClusteringEnabled() || isViewportCullingEnabled;
+    }
+
+    /**
+     * Enables clustering of markers with the given options, or disables it when `markerClusterer` is null.
+     */
+    public void setMarkerClusterer(@Nullable MarkerClusterer markerClusterer) {
+        this.markerClusterer = markerClusterer;
+        onMarkersManagementChanged();
+    }
+
+    /**
+     * Enables or disables viewport culling.
+     * When enabled, all markers are kept in a spatial index,
+     * and only the markers within the visible region (extended by `margin` times its size in each direction) are shown.
+     */
+    public void setViewportCulling(boolean isEnabled, float margin) {
+        viewportCullingMargin = Math.max(margin, 0);
+
+        if (isEnabled != isViewportCullingEnabled) {
+            isViewportCullingEnabled = isEnabled;
+            markerSpatialIndex.clear();
+            if (isEnabled) {
+                for (CustomMarker customMarker : customMarkers.values()) {
+                    addToSpatialIndex(customMarker);
+                }
+            }
+        }
+        onMarkersManagementChanged();
+    }
+
+    private void onMarkersManagementChanged() {
+        // results of a refresh that is still running are outdated
+        markersRefreshGeneration++;
+
+        updateGoogleMapListeners();
+
+        if (isMarkersManaged()) {
+            scheduleMarkersRefresh();
+        } else {
+            // show all markers separately again
+            renderMarkers(new HashSet<>(customMarkers.keySet()), new HashMap<>());
+        }
+    }
+
+    /**
+     * Adds a polyline or polygon, once the path for the current zoom level has been simplified on a background thread.
+     * A shape with the same id is replaced.
+     *
+     * @param resultConsumer receives the result, or null if the map is not ready (anymore)
+     */
+    public void addShape(CustomShape customShape, @NonNull Consumer<JSObject> resultConsumer) {
+        if (googleMap == null) {
+            resultConsumer.accept(null);
+            return;
+        }
+
+        final int zoomBand = CustomShape.getZoomBand(googleMap.getCameraPosition().zoom);
+
+        backgroundExecutor.execute(() -> {
+            customShape.prepare(zoomBand);
+            activity.runOnUiThread(() -> {
+                if (googleMap == null) {
+                    // the map has been released in the meantime
+                    resultConsumer.accept(null);
+                    return;
+                }
+                removeShape(customShape.shapeId);
+                customShape.addToMap(googleMap, zoomBand, activity.getResources().getDisplayMetrics().density);
+                shapes.put(customShape.shapeId, customShape);
+                updateGoogleMapListeners();
+
+                // the zoom might have changed while the path was being simplified
+                refreshShapes();
+
+                resultConsumer.accept(customShape.getResult(id));
+            });
+        });
+    }
+
+    /**
+     * @return whether a shape with the given id existed
+     */
+    public boolean removeShape(String shapeId) {
+        CustomShape customShape = shapes.remove(shapeId);
+        if (customShape == null) {
+            return false;
+        }
+        customShape.removeFromMap();
+        updateGoogleMapListeners();
+        return true;
+    }
+
+    /**
+     * Shows the paths of all shapes that are simplified for the current zoom level,
+     * of which the ones that have not been simplified yet are computed on a background thread first.
+     */
+    private void refreshShapes() {
+        if (googleMap == null) {
+            return;
+        }
+
+        final int zoomBand = CustomShape.getZoomBand(googleMap.getCameraPosition().zoom);
+        for (CustomShape customShape : shapes.values()) {
+            if (customShape.getShownZoomBand() == zoomBand) {
+                continue;
+            }
+            if (customShape.isPrepared(zoomBand)) {
+                customShape.showZoomBand(zoomBand);
+                continue;
+            }
+
+            backgroundExecutor.execute(() -> {
+                customShape.prepare(zoomBand);
+                activity.runOnUiThread(() -> {
+                    // the shape might have been removed, or the zoom might have changed again, in the meantime
+                    if (googleMap != null
+                            && shapes.get(customShape.shapeId) == customShape
+                            && CustomShape.getZoomBand(googleMap.getCameraPosition().zoom) == zoomBand) {
+                        customShape.showZoomBand(zoomBand);
+                    }
+                });
+            });
+        }
+    }
+
+    /**
+     * Adds a layer of tiles from the given provider, which replaces a layer with the same id.
+     *
+     * @param transparency from 0 (opaque) to 1 (invisible)
+     * @return whether the layer has been added, which is not the case when the map is not ready yet
+     */
+    public boolean setTileOverlay(String tileOverlayId, TileProvider tileProvider, float zIndex, float transparency) {
+        if (googleMap == null) {
+            return false;
+        }
+
+        removeTileOverlay(tileOverlayId);
+        TileOverlay tileOverlay = googleMap.addTileOverlay(
+                new TileOverlayOptions()
+                        .tileProvider(tileProvider)
+                        .zIndex(zIndex)
+                        .transparency(Math.max(0, Math.min(1, transparency)))
+        );
+        tileOverlays.put(tileOverlayId, tileOverlay);
+        tileProviders.put(tileOverlayId, tileProvider);
+        return true;
+    }
+
+    /**
+     * @return whether a layer with the given id existed
+     */
+    public boolean removeTileOverlay(String tileOverlayId) {
+        TileOverlay tileOverlay = tileOverlays.remove(tileOverlayId);
+        if (tileOverlay == null) {
+            return false;
+        }
+        tileOverlay.remove();
+        closeTileProvider(tileProviders.remove(tileOverlayId));
+        return true;
+    }
+
+    private void closeTileProviders() {
+        for (TileProvider tileProvider : tileProviders.values()) {
+            closeTileProvider(tileProvider);
+        }
+        tileProviders.clear();
+    }
+
+    private static void closeTileProvider(@Nullable TileProvider tileProvider) {
+        if (tileProvider instanceof Closeable) {
+            try {
+                ((Closeable) tileProvider).close();
+            } catch (IOException e) {
+                Log.w(TAG, "Could not close tile provider", e);
+            }
+        }
+    }
+
+    @Nullable
+    public List<String> getClusterMembers(String clusterId) {
+        MarkerClusterer.Cluster cluster = clusters.get(clusterId);
+        if (cluster != null) {
+            return cluster.markerIds;
+        }
+        return null;
+    }
+
+    private void scheduleMarkersRefresh() {
+        // coalesce multiple requests (e.g. while a batch of markers is being added) into one run
+        mainHandler.removeCallbacks(markersRefreshRunnable);
+        mainHandler.post(markersRefreshRunnable);
+    }
+
+    private void refreshMarkers() {
+        if (googleMap == null || !isMarkersManaged()) {
+            return;
+        }
+
+        final int generation = ++markersRefreshGeneration;
+
+        final List<MarkerClusterer.Item> items;
+        if (isViewportCullingEnabled) {
+            // only consider markers within (or near) the visible region
+            items = new ArrayList<>();
+            queryVisibleRegion(items);
+        } else {
+            items = new ArrayList<>(customMarkers.size());
+            for (CustomMarker customMarker : customMarkers.values()) {
+                LatLng position = customMarker.getPosition();
+                items.add(new MarkerClusterer.Item(customMarker.markerId, position.latitude, position.longitude));
+            }
+        }
+
+        if (!isClusteringEnabled()) {
+            final HashSet<String> visibleMarkerIds = new HashSet<>(items.size());
+            for (MarkerClusterer.Item item : items) {
+                visibleMarkerIds.add(item.markerId);
+            }
+            renderMarkers(visibleMarkerIds, new HashMap<>());
+            return;
+        }
+
+        final MarkerClusterer clusterer = markerClusterer;
+        final float zoom = googleMap.getCameraPosition().zoom;
+
+        backgroundExecutor.execute(() -> {
+            final List<MarkerClusterer.Cluster> result = clusterer.cluster(items, zoom);
+            activity.runOnUiThread(() -> {
+                // ignore outdated results, a newer run has been scheduled already
+                if (generation == markersRefreshGeneration) {
+                    renderClusters(result, clusterer.getMinimumClusterSize());
+                }
+            });
+        });
+    }
+
+    private void queryVisibleRegion(List<MarkerClusterer.Item> result) {
+        LatLngBounds bounds = googleMap.getProjection().getVisibleRegion().latLngBounds;
+
+        double south = bounds.southwest.latitude;
+        double north = bounds.northeast.latitude;
+        double west = bounds.southwest.longitude;
+        double east = bounds.northeast.longitude;
+
+        final double latitudeMargin = (north - south) * viewportCullingMargin;
+        final double longitudeSpan = west <= east ? east - west : 360 - west + east;
+        final double longitudeMargin = longitudeSpan * viewportCullingMargin;
+
+        south = Math.max(-90, south - latitudeMargin);
+        north = Math.min(90, north + latitudeMargin);
+        if (longitudeSpan + 2 * longitudeMargin >= 360) {
+            west = -180;
+            east = 180;
+        } else {
+            west = wrapLongitude(west - longitudeMargin);
+            east = wrapLongitude(east + longitudeMargin);
+        }
+
+        markerSpatialIndex.query(south, west, north, east, result);
+    }
+
+    private static double wrapLongitude(double longitude) {
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        if (longitude > 180) {
+            return longitude - 360;
+        }
+        return longitude;
+    }
+
+    private void renderClusters(List<MarkerClusterer.Cluster> result, int minimumClusterSize) {
+        final HashMap<String, MarkerClusterer.Cluster> newClusters = new HashMap<>();
+        final HashSet<String> visibleMarkerIds = new HashSet<>();
+
+        for (MarkerClusterer.Cluster cluster : result) {
+            if (cluster.getCount() >= minimumClusterSize) {
+                newClusters.put(cluster.clusterId, cluster);
+            } else {
+                visibleMarkerIds.addAll(cluster.markerIds);
+            }
+        }
+
+        renderMarkers(visibleMarkerIds, newClusters);
+    }
+
+    /**
+     * Makes sure exactly the given markers and clusters are shown on the map,
+     * by only adding and removing the ones that have changed.
+     */
+    private void renderMarkers(HashSet<String> visibleMarkerIds, HashMap<String, MarkerClusterer.Cluster> newClusters) {
+        // remove cluster markers that do not exist anymore, or of which the number of markers has changed
+        Iterator<HashMap.Entry<String, Marker>> clusterIterator = clusterMarkers.entrySet().iterator();
+        while (clusterIterator.hasNext()) {
+            HashMap.Entry<String, Marker> entry = clusterIterator.next();
+            MarkerClusterer.Cluster oldCluster = clusters.get(entry.getKey());
+            MarkerClusterer.Cluster newCluster = newClusters.get(entry.getKey());
+            if (oldCluster == null
+                    || newCluster == null
+                    || oldCluster.getCount() != newCluster.getCount()
+                    || !oldCluster.getPosition().equals(newCluster.getPosition())) {
+                clusterIdsByMarkerId.remove(entry.getValue().getId());
+                entry.getValue().remove();
+                clusterIterator.remove();
+            }
+        }
+
+        // remove markers that are part of a cluster, or out of sight, now
+        Iterator<HashMap.Entry<String, Marker>> markerIterator = markers.entrySet().iterator();
+        while (markerIterator.hasNext()) {
+            HashMap.Entry<String, Marker> entry = markerIterator.next();
+            if (!visibleMarkerIds.contains(entry.getKey())) {
+                markerStore.detach(entry.getValue());
+                entry.getValue().remove();
+                markerIterator.remove();
+            }
+        }
+
+        // add markers that should be shown now
+        for (String markerId : visibleMarkerIds) {
+            CustomMarker customMarker = customMarkers.get(markerId);
+            if (customMarker != null && !markers.containsKey(markerId)) {
+                materializeMarker(customMarker);
+            }
+        }
+
+        // add new cluster markers
+        for (MarkerClusterer.Cluster cluster : newClusters.values()) {
+            if (!clusterMarkers.containsKey(cluster.clusterId)) {
+                Marker clusterMarker = googleMap.addMarker(
+                        new MarkerOptions()
+                                .position(cluster.getPosition())
+                                .icon(clusterIconFactory.getIcon(cluster.getCount()))
+                                .anchor(0.5f, 0.5f)
+                );
+                clusterIdsByMarkerId.put(clusterMarker.getId(), cluster.clusterId);
+                clusterMarkers.put(cluster.clusterId, clusterMarker);
+            }
+        }
+
+        clusters.clear();
+        clusters.putAll(newClusters);
+    }
+
+    @Nullable
+    private String getClusterIdForMarker(Marker marker) {
+        String clusterId = clusterIdsByMarkerId.get(marker.getId());
+        if (clusterId != null && marker.equals(clusterMarkers.get(clusterId))) {
+            return clusterId;
+        }
+        return null;
+    }
+
+    private JSObject getResultForCluster(String clusterId, Marker clusterMarker) {
+        JSObject result = new JSObject();
+        JSObject clusterResult = new JSObject();
+        JSObject positionResult = new JSObject();
+
+        result.put("cluster", clusterResult);
+        clusterResult.put("position", positionResult);
+
+        clusterResult.put("mapId", id);
+        clusterResult.put("clusterId", clusterId);
+
+        positionResult.put("latitude", clusterMarker.getPosition().latitude);
+        positionResult.put("longitude", clusterMarker.getPosition().longitude);
+
+        MarkerClusterer.Cluster cluster = clusters.get(clusterId);
+        clusterResult.put("count", cluster != null ? cluster.getCount() : 0);
+
+        return result;
+    }
+
     private JSObject getResultForMap() {
         if (this.mapView != null && this.googleMap != null) {
             // initialize JSObjects
@@ -495,6 +1466,9 @@ public class CustomMapView
             // return mapId
             resultGoogleMap.put("mapId", id);
 
+            // return liteMode
+            resultPreferences.put("liteMode", isLiteMode);
+
             // return cameraPosition
             this.getResultForCameraPosition(resultGoogleMap);
 
@@ -544,6 +1518,27 @@ public class CustomMapView
         return resultObjectToExtend;
     }
 
+    private JSObject getResultForCameraMove() {
+        JSObject result = this.getResultForCameraPosition(new JSObject());
+
+        LatLngBounds latLngBounds = this.googleMap.getProjection().getVisibleRegion().latLngBounds;
+
+        JSObject resultBounds = new JSObject();
+        result.put("bounds", resultBounds);
+
+        JSObject resultSouthwest = new JSObject();
+        resultSouthwest.put("latitude", latLngBounds.southwest.latitude);
+        resultSouthwest.put("longitude", latLngBounds.southwest.longitude);
+        resultBounds.put("southwest", resultSouthwest);
+
+        JSObject resultNortheast = new JSObject();
+        resultNortheast.put("latitude", latLngBounds.northeast.latitude);
+        resultNortheast.put("longitude", latLngBounds.northeast.longitude);
+        resultBounds.put("northeast", resultNortheast);
+
+        return result;
+    }
+
     private JSObject getResultForPosition(Location location) {
         // initialize JSObjects to return
         JSObject result = new JSObject();
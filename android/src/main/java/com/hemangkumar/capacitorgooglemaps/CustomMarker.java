@@ -1,5 +1,7 @@
 package com.hemangkumar.capacitorgooglemaps;
 
+import android.text.TextUtils;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.util.Consumer;
@@ -8,7 +10,6 @@ import androidx.fragment.app.FragmentActivity;
 import com.getcapacitor.JSObject;
 import com.google.android.libraries.maps.GoogleMap;
 import com.google.android.libraries.maps.model.BitmapDescriptor;
-import com.google.android.libraries.maps.model.BitmapDescriptorFactory;
 import com.google.android.libraries.maps.model.LatLng;
 import com.google.android.libraries.maps.model.Marker;
 import com.google.android.libraries.maps.model.MarkerOptions;
@@ -22,21 +23,17 @@ public class CustomMarker {
     public String markerId = UUID.randomUUID().toString();
 
     private final MarkerOptions markerOptions = new MarkerOptions();
-    private JSObject tag = new JSObject();
     private JSObject iconDescriptor;
+    // to determine later on whether the icon has changed
+    private String iconKey = "";
+    // metadata is only needed for event payloads, so it is kept serialized (see `MarkerStore`)
+    private String metadataJson = "{}";
 
     public void asyncLoadIcon(
             @NonNull FragmentActivity activity,
             @Nullable Consumer<BitmapDescriptor> consumer) {
         new AsyncIconLoader(iconDescriptor, activity)
-            .load((bitmap) -> {
-                BitmapDescriptor bitmapDescriptor;
-                if (bitmap != null) {
-                    bitmapDescriptor = BitmapDescriptorFactory.fromBitmap(bitmap);
-                } else {
-                    bitmapDescriptor = null;
-                }
-
+            .load((bitmapDescriptor) -> {
                 if (consumer != null) {
                     consumer.accept(bitmapDescriptor);
                 }
@@ -44,6 +41,13 @@ public class CustomMarker {
     }
 
     public void updateFromJSObject(JSObject marker) {
+        // use the id given by the caller if it has been given,
+        // so the same marker can be referenced (e.g. by `setMarkers`) later on
+        final String givenMarkerId = marker.getString("markerId");
+        if (givenMarkerId != null && !givenMarkerId.isEmpty()) {
+            this.markerId = givenMarkerId;
+        }
+
         final JSObject position = JSObjectDefaults.getJSObjectSafe(marker, "position", new JSObject());
         final Double latitude = JSObjectDefaults.getDoubleSafe(position, "latitude", 0d);
         final Double longitude = JSObjectDefaults.getDoubleSafe(position, "longitude", 0d);
@@ -70,87 +74,167 @@ public class CustomMarker {
         this.markerOptions.zIndex(zIndex);
         this.markerOptions.anchor(anchorX, anchorY);
 
-        this.setMetadata(JSObjectDefaults.getJSObjectSafe(preferences, "metadata", new JSObject()));
-
         iconDescriptor = JSObjectDefaults.getJSObjectSafe(preferences, "icon", new JSObject());
+        iconKey = new IconDescriptor(iconDescriptor).getKey();
+
+        metadataJson = JSObjectDefaults.getJSObjectSafe(preferences, "metadata", new JSObject()).toString();
+    }
+
+    /**
+     * Creates a marker with the same preferences as `template`, but with its own id and position.
+     * This is a lot cheaper than `updateFromJSObject`, since nothing has to be parsed,
+     * which matters when thousands of markers share a few styles (see `MarkersAppender.createCustomMarkersFromColumns`).
+     */
+    public static CustomMarker fromTemplate(@NonNull CustomMarker template, @Nullable String markerId, double latitude, double longitude) {
+        CustomMarker customMarker = new CustomMarker();
+        if (markerId != null && !markerId.isEmpty()) {
+            customMarker.markerId = markerId;
+        }
+
+        customMarker.markerOptions
+                .position(new LatLng(latitude, longitude))
+                .title(template.markerOptions.getTitle())
+                .snippet(template.markerOptions.getSnippet())
+                .alpha(template.markerOptions.getAlpha())
+                .flat(template.markerOptions.isFlat())
+                .draggable(template.markerOptions.isDraggable())
+                .zIndex(template.markerOptions.getZIndex())
+                .anchor(template.markerOptions.getAnchorU(), template.markerOptions.getAnchorV());
+
+        // the icon descriptor and metadata are shared, only the id and position differ
+        customMarker.iconDescriptor = template.iconDescriptor;
+        customMarker.iconKey = template.iconKey;
+        customMarker.metadataJson = template.metadataJson;
+
+        return customMarker;
     }
 
-    public void addToMap(FragmentActivity activity, GoogleMap googleMap, @Nullable Consumer<Marker> consumer) {
+    /**
+     * Loads the icon of this marker and sets it to the MarkerOptions,
+     * so the marker can be added to a map later on without any further (async) work.
+     */
+    public void prepare(FragmentActivity activity, @NonNull Runnable onPrepared) {
         asyncLoadIcon(
             activity,
             (BitmapDescriptor bitmapDescriptor) -> {
                 markerOptions.icon(bitmapDescriptor);
-                Marker marker = googleMap.addMarker(markerOptions);
-                marker.setTag(tag);
-
-                if (consumer != null) {
-                    consumer.accept(marker);
-                }
+                onPrepared.run();
             });
     }
 
-    private void setMetadata(@NonNull JSObject jsObject) {
-        JSObject tag = new JSObject();
-        // set id to tag
-        tag.put("markerId", this.markerId);
-        // set anchor to tag (because it cannot be retrieved from a marker instance)
-        JSObject anchorResult = new JSObject();
-        anchorResult.put("x", this.markerOptions.getAnchorU());
-        anchorResult.put("y", this.markerOptions.getAnchorV());
-        tag.put("anchor", anchorResult);
-        // then set metadata to tag
-        tag.put("metadata", jsObject);
-        // save in tag variable
-        this.tag = tag;
+    /**
+     * Adds this marker to the given map with whatever icon is currently set to the MarkerOptions.
+     * Should be called on the main thread, preferably after `prepare` has finished.
+     */
+    public Marker addPreparedToMap(GoogleMap googleMap) {
+        return googleMap.addMarker(markerOptions);
     }
 
-    public static JSObject getResultForMarker(Marker marker, String mapId) {
-        JSObject tag = null;
+    /**
+     * Applies the properties of this CustomMarker to a Marker that already exists on the map,
+     * but only the properties that have actually changed.
+     * The icon is not applied, since that has to be loaded first (see `hasSameIcon` and `prepare`).
+     *
+     * @param previous the CustomMarker that has been applied to the Marker before,
+     *                 since the anchor cannot be retrieved from a Marker instance
+     * @return whether any property has changed
+     */
+    public boolean applyToMarker(Marker marker, CustomMarker previous) {
+        boolean isChanged = false;
+
+        if (!markerOptions.getPosition().equals(marker.getPosition())) {
+            marker.setPosition(markerOptions.getPosition());
+            isChanged = true;
+        }
+        if (!TextUtils.equals(markerOptions.getTitle(), marker.getTitle())) {
+            marker.setTitle(markerOptions.getTitle());
+            isChanged = true;
+        }
+        if (!TextUtils.equals(markerOptions.getSnippet(), marker.getSnippet())) {
+            marker.setSnippet(markerOptions.getSnippet());
+            isChanged = true;
+        }
+        if (markerOptions.getAlpha() != marker.getAlpha()) {
+            marker.setAlpha(markerOptions.getAlpha());
+            isChanged = true;
+        }
+        if (markerOptions.isFlat() != marker.isFlat()) {
+            marker.setFlat(markerOptions.isFlat());
+            isChanged = true;
+        }
+        if (markerOptions.isDraggable() != marker.isDraggable()) {
+            marker.setDraggable(markerOptions.isDraggable());
+            isChanged = true;
+        }
+        if (markerOptions.getZIndex() != marker.getZIndex()) {
+            marker.setZIndex(markerOptions.getZIndex());
+            isChanged = true;
+        }
 
-        try {
-            tag = (JSObject) marker.getTag();
-        } catch (Exception e) {
-            e.printStackTrace();
-        } finally {
-            tag = tag != null ? tag : new JSObject();
+        if (markerOptions.getAnchorU() != previous.markerOptions.getAnchorU()
+                || markerOptions.getAnchorV() != previous.markerOptions.getAnchorV()) {
+            marker.setAnchor(markerOptions.getAnchorU(), markerOptions.getAnchorV());
+            isChanged = true;
         }
 
-        // initialize JSObjects to return
-        JSObject result = new JSObject();
-        JSObject markerResult = new JSObject();
-        JSObject positionResult = new JSObject();
-        JSObject preferencesResult = new JSObject();
-
-        result.put("marker", markerResult);
-        markerResult.put("position", positionResult);
-        markerResult.put("preferences", preferencesResult);
-
-        // get map id
-        markerResult.put("mapId", mapId);
-
-        // get id
-        String markerId = tag.optString("markerId", marker.getId());
-        markerResult.put("markerId", markerId);
-
-        // get position values
-        positionResult.put("latitude", marker.getPosition().latitude);
-        positionResult.put("longitude", marker.getPosition().longitude);
-
-        // get preferences
-        preferencesResult.put("title", marker.getTitle());
-        preferencesResult.put("snippet", marker.getSnippet());
-        preferencesResult.put("opacity", marker.getAlpha());
-        preferencesResult.put("isFlat", marker.isFlat());
-        preferencesResult.put("isDraggable", marker.isDraggable());
-        preferencesResult.put("zIndex", marker.getZIndex());
-        // anchor values
-        JSObject anchorResult = JSObjectDefaults.getJSObjectSafe(tag, "anchor", new JSObject());
-        preferencesResult.put("anchor", anchorResult);
-        // metadata
-        JSObject metadata = JSObjectDefaults.getJSObjectSafe(tag, "metadata", new JSObject());
-        preferencesResult.put("metadata", metadata);
-
-        return result;
+        return isChanged;
+    }
+
+    /**
+     * @return whether the given CustomMarker has the same icon (url and size) as this CustomMarker
+     */
+    public boolean hasSameIcon(CustomMarker other) {
+        return iconKey.equals(other.iconKey);
+    }
+
+    /**
+     * @return whether the given CustomMarker has the same properties (except for the icon) as this CustomMarker
+     */
+    public boolean hasSameState(CustomMarker other) {
+        return markerOptions.getPosition().equals(other.markerOptions.getPosition())
+                && TextUtils.equals(markerOptions.getTitle(), other.markerOptions.getTitle())
+                && TextUtils.equals(markerOptions.getSnippet(), other.markerOptions.getSnippet())
+                && markerOptions.getAlpha() == other.markerOptions.getAlpha()
+                && markerOptions.isFlat() == other.markerOptions.isFlat()
+                && markerOptions.isDraggable() == other.markerOptions.isDraggable()
+                && markerOptions.getZIndex() == other.markerOptions.getZIndex()
+                && markerOptions.getAnchorU() == other.markerOptions.getAnchorU()
+                && markerOptions.getAnchorV() == other.markerOptions.getAnchorV()
+                && metadataJson.equals(other.metadataJson);
+    }
+
+    /**
+     * Uses the icon that has already been loaded by the given CustomMarker,
+     * so this CustomMarker does not have to be prepared anymore.
+     */
+    public void copyIconFrom(CustomMarker other) {
+        markerOptions.icon(other.markerOptions.getIcon());
     }
 
+    /**
+     * @return the icon that was loaded by `prepare`
+     */
+    @Nullable
+    public BitmapDescriptor getIcon() {
+        return markerOptions.getIcon();
+    }
+
+    public LatLng getPosition() {
+        return markerOptions.getPosition();
+    }
+
+    public void setPosition(LatLng position) {
+        markerOptions.position(position);
+    }
+
+    /**
+     * @return the options of this marker, which should not be modified
+     */
+    MarkerOptions getMarkerOptions() {
+        return markerOptions;
+    }
+
+    String getMetadataJson() {
+        return metadataJson;
+    }
 }
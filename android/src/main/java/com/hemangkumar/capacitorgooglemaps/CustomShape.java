@@ -0,0 +1,280 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import android.graphics.Color;
+import android.util.SparseArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import com.getcapacitor.JSObject;
+import com.google.android.libraries.maps.GoogleMap;
+import com.google.android.libraries.maps.model.LatLng;
+import com.google.android.libraries.maps.model.Polygon;
+import com.google.android.libraries.maps.model.PolygonOptions;
+import com.google.android.libraries.maps.model.Polyline;
+import com.google.android.libraries.maps.model.PolylineOptions;
+
+import org.json.JSONException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A polyline or polygon, of which the full resolution path is kept natively,
+ * while the map only shows a version that is simplified for the current zoom level (see `PathSimplifier`).
+ * Simplified versions are computed per (integer) zoom level on a background thread, and cached.
+ */
+public class CustomShape {
+
+    public static final int MAX_ZOOM_BAND = 21;
+
+    // the maximum distance in density independent pixels a simplified path may deviate from the full resolution path
+    private static final double TOLERANCE_DP = 0.5;
+
+    public final String shapeId;
+    public final boolean isPolygon;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private double[] xs;
+    private double[] ys;
+    // the indices of the points that are kept per zoom band
+    private final SparseArray<int[]> simplifiedIndices = new SparseArray<>();
+
+    private final int strokeColor;
+    private final float strokeWidth;
+    private final int fillColor;
+    private final float zIndex;
+    private final boolean isGeodesic;
+
+    private Polyline polyline;
+    private Polygon polygon;
+    private int shownZoomBand = -1;
+
+    private CustomShape(String shapeId, boolean isPolygon, double[] latitudes, double[] longitudes, JSObject preferences) {
+        this.shapeId = shapeId;
+        this.isPolygon = isPolygon;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+
+        this.strokeColor = getColor(preferences, "strokeColor", Color.BLACK);
+        this.strokeWidth = JSObjectDefaults.getFloatSafe(preferences, "strokeWidth", 3f);
+        this.fillColor = getColor(preferences, "fillColor", Color.TRANSPARENT);
+        this.zIndex = JSObjectDefaults.getFloatSafe(preferences, "zIndex", 0f);
+        this.isGeodesic = JSObjectDefaults.getBooleanSafe(preferences, "isGeodesic", false);
+    }
+
+    /**
+     * Example source of JSObject:
+     * { shapeId: '...', path: { encoded: '_p~iF~ps|U_ulLnnqC' }, preferences: { strokeColor: '#FF0000FF', strokeWidth: 4 } }
+     * or with `path: { latitudes: [...], longitudes: [...] }`, of which the arrays can also be packed (see `PackedArrays`).
+     */
+    @NonNull
+    public static CustomShape fromJSObject(@NonNull JSObject jsShape, boolean isPolygon) throws JSONException {
+        String shapeId = jsShape.getString("shapeId");
+        if (shapeId == null || shapeId.isEmpty()) {
+            shapeId = UUID.randomUUID().toString();
+        }
+
+        final JSObject path = JSObjectDefaults.getJSObjectSafe(jsShape, "path", new JSObject());
+        final double[] latitudes;
+        final double[] longitudes;
+        final String encoded = path.getString("encoded");
+        if (encoded != null) {
+            final double[] coordinates = decodePolyline(encoded);
+            latitudes = new double[coordinates.length / 2];
+            longitudes = new double[coordinates.length / 2];
+            for (int i = 0; i < latitudes.length; i++) {
+                latitudes[i] = coordinates[2 * i];
+                longitudes[i] = coordinates[2 * i + 1];
+            }
+        } else {
+            final double[] decodedLatitudes = PackedArrays.decodeDoubles(path.opt("latitudes"));
+            final double[] decodedLongitudes = PackedArrays.decodeDoubles(path.opt("longitudes"));
+            if (decodedLatitudes == null || decodedLongitudes == null) {
+                throw new JSONException("path should either contain `encoded`, or `latitudes` and `longitudes`");
+            }
+            if (decodedLatitudes.length != decodedLongitudes.length) {
+                throw new JSONException("latitudes and longitudes should have the same length");
+            }
+            latitudes = decodedLatitudes;
+            longitudes = decodedLongitudes;
+        }
+
+        final JSObject preferences = JSObjectDefaults.getJSObjectSafe(jsShape, "preferences", new JSObject());
+        return new CustomShape(shapeId, isPolygon, latitudes, longitudes, preferences);
+    }
+
+    public static int getZoomBand(float zoom) {
+        return Math.max(0, Math.min(MAX_ZOOM_BAND, (int) Math.floor(zoom)));
+    }
+
+    /**
+     * Computes (and caches) the simplified path for the given zoom band, which can take a while for long paths.
+     */
+    @WorkerThread
+    public void prepare(int zoomBand) {
+        synchronized (simplifiedIndices) {
+            if (simplifiedIndices.get(zoomBand) != null) {
+                return;
+            }
+            if (xs == null) {
+                xs = new double[latitudes.length];
+                ys = new double[latitudes.length];
+                PathSimplifier.project(latitudes, longitudes, xs, ys);
+            }
+            simplifiedIndices.put(zoomBand, PathSimplifier.simplify(xs, ys, PathSimplifier.getTolerance(TOLERANCE_DP, zoomBand), isPolygon));
+        }
+    }
+
+    public boolean isPrepared(int zoomBand) {
+        synchronized (simplifiedIndices) {
+            return simplifiedIndices.get(zoomBand) != null;
+        }
+    }
+
+    /**
+     * Adds this shape to the given map, with the path of the given zoom band, which should have been prepared already.
+     *
+     * @param density to convert the stroke width into pixels
+     */
+    public void addToMap(GoogleMap googleMap, int zoomBand, float density) {
+        final List<LatLng> points = getPoints(zoomBand);
+        if (isPolygon) {
+            polygon = googleMap.addPolygon(
+                    new PolygonOptions()
+                            .addAll(points)
+                            .strokeColor(strokeColor)
+                            .strokeWidth(strokeWidth * density)
+                            .fillColor(fillColor)
+                            .zIndex(zIndex)
+                            .geodesic(isGeodesic)
+            );
+        } else {
+            polyline = googleMap.addPolyline(
+                    new PolylineOptions()
+                            .addAll(points)
+                            .color(strokeColor)
+                            .width(strokeWidth * density)
+                            .zIndex(zIndex)
+                            .geodesic(isGeodesic)
+            );
+        }
+        shownZoomBand = zoomBand;
+    }
+
+    /**
+     * Shows the path of the given zoom band, which should have been prepared already.
+     */
+    public void showZoomBand(int zoomBand) {
+        if (zoomBand == shownZoomBand) {
+            return;
+        }
+        if (polygon != null) {
+            polygon.setPoints(getPoints(zoomBand));
+        } else if (polyline != null) {
+            polyline.setPoints(getPoints(zoomBand));
+        }
+        shownZoomBand = zoomBand;
+    }
+
+    public int getShownZoomBand() {
+        return shownZoomBand;
+    }
+
+    public void removeFromMap() {
+        if (polygon != null) {
+            polygon.remove();
+            polygon = null;
+        }
+        if (polyline != null) {
+            polyline.remove();
+            polyline = null;
+        }
+        shownZoomBand = -1;
+    }
+
+    public JSObject getResult(String mapId) {
+        JSObject result = new JSObject();
+        result.put("mapId", mapId);
+        result.put("shapeId", shapeId);
+        result.put("pointCount", latitudes.length);
+        result.put("shownPointCount", shownZoomBand >= 0 ? getIndices(shownZoomBand).length : 0);
+        return result;
+    }
+
+    private List<LatLng> getPoints(int zoomBand) {
+        final int[] indices = getIndices(zoomBand);
+        final List<LatLng> points = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            points.add(new LatLng(latitudes[index], longitudes[index]));
+        }
+        return points;
+    }
+
+    @NonNull
+    private int[] getIndices(int zoomBand) {
+        synchronized (simplifiedIndices) {
+            int[] indices = simplifiedIndices.get(zoomBand);
+            return indices != null ? indices : new int[0];
+        }
+    }
+
+    private static int getColor(JSObject preferences, String name, int defaultColor) {
+        final String color = preferences.getString(name);
+        if (color == null) {
+            return defaultColor;
+        }
+        try {
+            return Color.parseColor(color);
+        } catch (IllegalArgumentException e) {
+            return defaultColor;
+        }
+    }
+
+    /**
+     * Decodes a path in the Encoded Polyline Algorithm Format, e.g. as returned by the Directions API.
+     *
+     * @return the latitude and longitude of every point, one after the other
+     */
+    @NonNull
+    private static double[] decodePolyline(@NonNull String encoded) throws JSONException {
+        // every point takes at least two characters
+        final double[] coordinates = new double[encoded.length()];
+        int count = 0;
+
+        int index = 0;
+        int latitude = 0;
+        int longitude = 0;
+        final int length = encoded.length();
+        while (index < length) {
+            for (int i = 0; i < 2; i++) {
+                int shift = 0;
+                int value = 0;
+                int b;
+                do {
+                    if (index >= length) {
+                        throw new JSONException("invalid encoded polyline");
+                    }
+                    b = encoded.charAt(index++) - 63;
+                    value |= (b & 0x1f) << shift;
+                    shift += 5;
+                } while (b >= 0x20);
+
+                final int delta = (value & 1) != 0 ? ~(value >> 1) : (value >> 1);
+                if (i == 0) {
+                    latitude += delta;
+                } else {
+                    longitude += delta;
+                }
+            }
+
+            coordinates[count++] = latitude * 1e-5;
+            coordinates[count++] = longitude * 1e-5;
+        }
+
+        return Arrays.copyOf(coordinates, count);
+    }
+}
@@ -0,0 +1,84 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import android.os.Handler;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Limits how often a high frequency event (e.g. camera moves) is sent to the WebView.
+ * Events that arrive too soon after the previous one are coalesced into a single trailing event,
+ * so the last state is always delivered.
+ *
+ * All methods of this class should be called on the thread of `handler` (the main thread).
+ */
+class EventThrottler {
+
+    private final Handler handler;
+    private final Runnable emitter;
+    private final Runnable trailingRunnable = this::emitTrailing;
+
+    private long minIntervalMs = 0;
+    private long lastEmitTime = 0;
+    private boolean isTrailingPosted = false;
+
+    public EventThrottler(@NonNull Handler handler, @NonNull Runnable emitter) {
+        this.handler = handler;
+        this.emitter = emitter;
+    }
+
+    /**
+     * @param maxEventRate the maximum number of events per second, or 0 (or less) to not throttle at all
+     */
+    public void setMaxEventRate(float maxEventRate) {
+        setMinInterval(maxEventRate > 0 ? (long) Math.ceil(1000 / maxEventRate) : 0);
+    }
+
+    /**
+     * @param minIntervalMs the minimum time between two events, or 0 (or less) to not throttle at all
+     */
+    public void setMinInterval(long minIntervalMs) {
+        this.minIntervalMs = Math.max(0, minIntervalMs);
+    }
+
+    /**
+     * Emits the event right away if allowed, otherwise makes sure a trailing event is emitted as soon as it is allowed.
+     */
+    public void submit() {
+        if (isTrailingPosted) {
+            // the trailing event will pick up the latest state
+            return;
+        }
+
+        final long now = SystemClock.uptimeMillis();
+        final long elapsed = now - lastEmitTime;
+        if (minIntervalMs <= 0 || elapsed >= minIntervalMs) {
+            lastEmitTime = now;
+            emitter.run();
+        } else {
+            isTrailingPosted = true;
+            handler.postDelayed(trailingRunnable, minIntervalMs - elapsed);
+        }
+    }
+
+    /**
+     * Emits a pending trailing event right away, e.g. because the sequence of events has ended.
+     */
+    public void flush() {
+        if (isTrailingPosted) {
+            handler.removeCallbacks(trailingRunnable);
+            emitTrailing();
+        }
+    }
+
+    public void cancel() {
+        handler.removeCallbacks(trailingRunnable);
+        isTrailingPosted = false;
+    }
+
+    private void emitTrailing() {
+        isTrailingPosted = false;
+        lastEmitTime = SystemClock.uptimeMillis();
+        emitter.run();
+    }
+}
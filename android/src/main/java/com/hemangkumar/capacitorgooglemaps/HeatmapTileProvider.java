@@ -0,0 +1,328 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.getcapacitor.JSObject;
+import com.google.android.libraries.maps.model.Tile;
+import com.google.android.libraries.maps.model.TileProvider;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders a heatmap of (weighted) points into tiles, so the rendering cost does not depend on the number of points
+ * that are shown, but only on the number of tiles.
+ * Points are kept in a grid index in Web Mercator world coordinates, so a tile only visits the points near it.
+ * Rendered tiles are kept in a byte-bounded cache that is shared by all heatmaps, keyed by their data version.
+ *
+ * `getTile` is called by the map on its own (background) threads, on which tiles are rendered right away.
+ */
+class HeatmapTileProvider implements TileProvider {
+
+    private static final int TILE_SIZE = 256;
+    private static final int GRID_SIZE = 256;
+    private static final int MAX_ZOOM = 22;
+    private static final int CACHE_SIZE_BYTES = 8 * 1024 * 1024;
+
+    public static final int DEFAULT_RADIUS = 20;
+    // every tile is rendered with a margin of `radius` pixels and a kernel of `2 * radius + 1` pixels
+    public static final int MAX_RADIUS = 50;
+    public static final String[] DEFAULT_COLORS = { "#00FF00", "#FFFF00", "#FF0000" };
+
+    // every instance has its own data version, so tiles of replaced data are never served from the cache
+    private static final AtomicInteger lastVersion = new AtomicInteger(0);
+
+    private static final LruCache<String, Tile> tileCache = new LruCache<String, Tile>(CACHE_SIZE_BYTES) {
+        @Override
+        protected int sizeOf(String key, Tile tile) {
+            return tile.data != null ? tile.data.length : 0;
+        }
+    };
+
+    private final int version = lastVersion.incrementAndGet();
+
+    private final int pointCount;
+    private final double[] xs;
+    private final double[] ys;
+    private final float[] weights;
+    // the points per grid cell: the indices of the points of cell i are cellPoints[cellStarts[i]] until cellPoints[cellStarts[i + 1]]
+    private final int[] cellStarts = new int[GRID_SIZE * GRID_SIZE + 1];
+    private final int[] cellPoints;
+
+    private final int radius;
+    private final float[] kernel;
+    private final int[] colorMap;
+    private final float fixedMaxIntensity;
+    private final HashMap<Integer, Float> maxIntensities = new HashMap<>();
+
+    /**
+     * @param maxIntensity the intensity that gets the last color, or 0 (or less) to derive it from the data per zoom level
+     */
+    @WorkerThread
+    public HeatmapTileProvider(
+            @NonNull double[] latitudes,
+            @NonNull double[] longitudes,
+            @Nullable double[] weights,
+            int radius,
+            @NonNull int[] colors,
+            float maxIntensity) {
+        this.pointCount = latitudes.length;
+        this.xs = new double[pointCount];
+        this.ys = new double[pointCount];
+        this.weights = new float[pointCount];
+        this.cellPoints = new int[pointCount];
+
+        PathSimplifier.project(latitudes, longitudes, xs, ys);
+        for (int i = 0; i < pointCount; i++) {
+            this.weights[i] = weights != null ? (float) weights[i] : 1f;
+        }
+        buildGrid();
+
+        this.radius = Math.max(1, Math.min(MAX_RADIUS, radius));
+        this.kernel = createKernel(this.radius);
+        this.colorMap = createColorMap(colors);
+        this.fixedMaxIntensity = maxIntensity;
+    }
+
+    /**
+     * Example source of JSObject:
+     * { latitudes: [...], longitudes: [...], weights: [...] }
+     * of which the arrays can also be packed (see `PackedArrays`).
+     */
+    @WorkerThread
+    @NonNull
+    public static HeatmapTileProvider fromJSObjects(@NonNull JSObject points, @NonNull JSObject preferences) throws JSONException {
+        final double[] latitudes = PackedArrays.decodeDoubles(points.opt("latitudes"));
+        final double[] longitudes = PackedArrays.decodeDoubles(points.opt("longitudes"));
+        final double[] weights = PackedArrays.decodeDoubles(points.opt("weights"));
+        if (latitudes == null || longitudes == null) {
+            throw new JSONException("points should contain `latitudes` and `longitudes`");
+        }
+        if (latitudes.length != longitudes.length || (weights != null && weights.length != latitudes.length)) {
+            throw new JSONException("latitudes, longitudes and weights should have the same length");
+        }
+        if (weights != null) {
+            for (double weight : weights) {
+                if (!(weight >= 0) || Double.isInfinite(weight)) {
+                    throw new JSONException("invalid weight " + weight + ", weights should be finite and not negative");
+                }
+            }
+        }
+
+        final JSONArray jsColors = preferences.optJSONArray("colors");
+        final String[] colorStrings = jsColors != null && jsColors.length() > 0 ? new String[jsColors.length()] : DEFAULT_COLORS;
+        if (colorStrings != DEFAULT_COLORS) {
+            for (int i = 0; i < colorStrings.length; i++) {
+                colorStrings[i] = jsColors.getString(i);
+            }
+        }
+        final int[] colors = new int[colorStrings.length];
+        for (int i = 0; i < colors.length; i++) {
+            try {
+                colors[i] = Color.parseColor(colorStrings[i]);
+            } catch (IllegalArgumentException e) {
+                throw new JSONException("invalid color " + colorStrings[i]);
+            }
+        }
+
+        return new HeatmapTileProvider(
+                latitudes,
+                longitudes,
+                weights,
+                JSObjectDefaults.getIntegerSafe(preferences, "radius", DEFAULT_RADIUS),
+                colors,
+                JSObjectDefaults.getFloatSafe(preferences, "maxIntensity", 0f)
+        );
+    }
+
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    @Nullable
+    @Override
+    public Tile getTile(int x, int y, int zoom) {
+        final String key = version + "/" + zoom + "/" + x + "/" + y;
+        final Tile cachedTile = tileCache.get(key);
+        if (cachedTile != null) {
+            return cachedTile;
+        }
+
+        final Tile tile = renderTile(x, y, zoom);
+        if (tile != NO_TILE) {
+            tileCache.put(key, tile);
+        }
+        return tile;
+    }
+
+    @WorkerThread
+    private Tile renderTile(int x, int y, int zoom) {
+        final double scale = TILE_SIZE * Math.pow(2, zoom);
+        final double tileWorldSize = 1 / Math.pow(2, zoom);
+        final double margin = radius / scale;
+
+        final double west = x * tileWorldSize - margin;
+        final double north = y * tileWorldSize - margin;
+        final double east = (x + 1) * tileWorldSize + margin;
+        final double south = (y + 1) * tileWorldSize + margin;
+
+        // the tile including a margin of `radius` pixels, since points just outside the tile also color it
+        final int size = TILE_SIZE + 2 * radius;
+        final float[] grid = new float[size * size];
+        boolean isEmpty = true;
+
+        final int firstColumn = getCell(west);
+        final int lastColumn = getCell(east);
+        final int firstRow = getCell(north);
+        final int lastRow = getCell(south);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                final int cell = row * GRID_SIZE + column;
+                for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                    final int point = cellPoints[i];
+                    final int px = (int) Math.floor((xs[point] - west) * scale);
+                    final int py = (int) Math.floor((ys[point] - north) * scale);
+                    if (px >= 0 && px < size && py >= 0 && py < size) {
+                        grid[py * size + px] += weights[point];
+                        isEmpty = false;
+                    }
+                }
+            }
+        }
+
+        if (isEmpty) {
+            return NO_TILE;
+        }
+
+        // the gaussian kernel is separable, so blur horizontally first and then vertically
+        final float[] horizontal = new float[size * TILE_SIZE];
+        for (int py = 0; py < size; py++) {
+            for (int px = 0; px < TILE_SIZE; px++) {
+                float sum = 0;
+                for (int k = 0; k < kernel.length; k++) {
+                    sum += grid[py * size + px + k] * kernel[k];
+                }
+                horizontal[py * TILE_SIZE + px] = sum;
+            }
+        }
+
+        final float maxIntensity = getMaxIntensity(zoom);
+        final int[] pixels = new int[TILE_SIZE * TILE_SIZE];
+        for (int py = 0; py < TILE_SIZE; py++) {
+            for (int px = 0; px < TILE_SIZE; px++) {
+                float sum = 0;
+                for (int k = 0; k < kernel.length; k++) {
+                    sum += horizontal[(py + k) * TILE_SIZE + px] * kernel[k];
+                }
+                final int index = (int) (Math.min(1f, sum / maxIntensity) * (colorMap.length - 1));
+                pixels[py * TILE_SIZE + px] = colorMap[index];
+            }
+        }
+
+        final Bitmap bitmap = Bitmap.createBitmap(pixels, TILE_SIZE, TILE_SIZE, Bitmap.Config.ARGB_8888);
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.PNG, 100, outputStream);
+        bitmap.recycle();
+
+        return new Tile(TILE_SIZE, TILE_SIZE, outputStream.toByteArray());
+    }
+
+    /**
+     * @return the intensity that gets the last color at the given zoom level,
+     * which is (roughly) the highest sum of weights within `radius` pixels
+     */
+    private float getMaxIntensity(int zoom) {
+        if (fixedMaxIntensity > 0) {
+            return fixedMaxIntensity;
+        }
+
+        synchronized (maxIntensities) {
+            final Float cachedMaxIntensity = maxIntensities.get(zoom);
+            if (cachedMaxIntensity != null) {
+                return cachedMaxIntensity;
+            }
+
+            final double binSize = radius / (TILE_SIZE * Math.pow(2, Math.min(zoom, MAX_ZOOM)));
+            final HashMap<Long, Float> bins = new HashMap<>();
+            float maxIntensity = 0;
+            for (int i = 0; i < pointCount; i++) {
+                final long bin = ((long) (xs[i] / binSize) << 32) | (long) (ys[i] / binSize);
+                Float intensity = bins.get(bin);
+                final float newIntensity = (intensity != null ? intensity : 0) + weights[i];
+                bins.put(bin, newIntensity);
+                maxIntensity = Math.max(maxIntensity, newIntensity);
+            }
+
+            maxIntensity = Math.max(maxIntensity, Float.MIN_NORMAL);
+            maxIntensities.put(zoom, maxIntensity);
+            return maxIntensity;
+        }
+    }
+
+    private void buildGrid() {
+        // counting sort of the points by their cell
+        final int[] cells = new int[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            cells[i] = getCell(ys[i]) * GRID_SIZE + getCell(xs[i]);
+            cellStarts[cells[i] + 1]++;
+        }
+        for (int cell = 0; cell < GRID_SIZE * GRID_SIZE; cell++) {
+            cellStarts[cell + 1] += cellStarts[cell];
+        }
+        final int[] offsets = new int[GRID_SIZE * GRID_SIZE];
+        for (int i = 0; i < pointCount; i++) {
+            cellPoints[cellStarts[cells[i]] + offsets[cells[i]]++] = i;
+        }
+    }
+
+    private static int getCell(double worldCoordinate) {
+        return Math.max(0, Math.min(GRID_SIZE - 1, (int) (worldCoordinate * GRID_SIZE)));
+    }
+
+    private static float[] createKernel(int radius) {
+        final float[] kernel = new float[2 * radius + 1];
+        final double sigma = radius / 3.0;
+        for (int i = -radius; i <= radius; i++) {
+            kernel[i + radius] = (float) Math.exp(-i * i / (2 * sigma * sigma));
+        }
+        return kernel;
+    }
+
+    /**
+     * @return 256 colors from transparent (no intensity) to the last color (maximum intensity),
+     * in which the given colors are spread evenly and low intensities fade in
+     */
+    private static int[] createColorMap(int[] colors) {
+        final int[] colorMap = new int[256];
+        for (int i = 1; i < colorMap.length; i++) {
+            final float fraction = (float) i / (colorMap.length - 1);
+            final float position = fraction * (colors.length - 1);
+            final int index = Math.min(colors.length - 2, (int) position);
+            final int color = colors.length == 1 ? colors[0] : blend(colors[index], colors[index + 1], position - index);
+            // fade in the lowest 20% of intensities
+            final float alphaFactor = Math.min(1f, fraction / 0.2f);
+            colorMap[i] = Color.argb((int) (Color.alpha(color) * alphaFactor), Color.red(color), Color.green(color), Color.blue(color));
+        }
+        colorMap[0] = Color.TRANSPARENT;
+        return colorMap;
+    }
+
+    private static int blend(int from, int to, float fraction) {
+        return Color.argb(
+                (int) (Color.alpha(from) + (Color.alpha(to) - Color.alpha(from)) * fraction),
+                (int) (Color.red(from) + (Color.red(to) - Color.red(from)) * fraction),
+                (int) (Color.green(from) + (Color.green(to) - Color.green(from)) * fraction),
+                (int) (Color.blue(from) + (Color.blue(to) - Color.blue(from)) * fraction)
+        );
+    }
+}
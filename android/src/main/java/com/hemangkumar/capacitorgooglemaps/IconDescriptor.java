@@ -1,19 +1,24 @@
 package com.hemangkumar.capacitorgooglemaps;
 
 import android.content.res.Resources;
+import android.net.Uri;
 import android.util.Size;
 
 import androidx.annotation.NonNull;
 
 import com.getcapacitor.JSObject;
 
+import java.util.Locale;
+
 class IconDescriptor {
     @NonNull
     public final String url;
     @NonNull
     public final Size size;
+    @NonNull
+    private final String key;
 
-    private float density = Resources.getSystem().getDisplayMetrics().density;
+    private final float density = Resources.getSystem().getDisplayMetrics().density;
 
     /**
      * Example source of JSObject:
@@ -38,5 +43,34 @@ class IconDescriptor {
         size = new Size(
                 (int) Math.round(jsSize.optDouble("width", 30) * density),
                 (int) Math.round(jsSize.optDouble("height", 30) * density));
+
+        key = normalizeUrl(url) + "|" + size.getWidth() + "x" + size.getHeight() + "@" + density;
+    }
+
+    /**
+     * @return a key which is equal for all icons that result in the same image
+     * (same url, same size in pixels and same screen density)
+     */
+    @NonNull
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Scheme and host are case insensitive, so those are lower cased.
+     * The rest of the url is kept as is, since paths and queries can be case sensitive.
+     */
+    @NonNull
+    private static String normalizeUrl(@NonNull String url) {
+        final String trimmedUrl = url.trim();
+        final Uri uri = Uri.parse(trimmedUrl);
+        if (uri.getScheme() == null || uri.getEncodedAuthority() == null) {
+            return trimmedUrl;
+        }
+        return uri.buildUpon()
+                .scheme(uri.getScheme().toLowerCase(Locale.ROOT))
+                .encodedAuthority(uri.getEncodedAuthority().toLowerCase(Locale.ROOT))
+                .build()
+                .toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,235 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.graphics.Bitmap;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Persists rasterized icons (e.g. rendered SVGs) on disk, so they survive app restarts and process deaths.
+ * Icons are stored as raw ARGB_8888 pixels, so they can be memory-mapped and copied into a Bitmap
+ * without parsing or decoding anything.
+ * Since icons are only keyed by url and size, an icon expires after `MAX_AGE_MS`,
+ * so a changed icon on the server shows up eventually (or right away after `clear`).
+ *
+ * All methods do disk I/O and should be called on a background thread.
+ */
+class IconDiskCache {
+
+    private static final String TAG = "IconDiskCache";
+    private static final String DIRECTORY_NAME = "capacitor-google-maps-icons";
+    private static final String FILE_EXTENSION = ".argb";
+    private static final long MAX_SIZE_BYTES = 20 * 1024 * 1024;
+    private static final String PREFERENCES_NAME = "capacitor-google-maps-icons";
+    private static final String GENERATION_KEY = "generation";
+
+    public static final long MAX_AGE_MS = 7 * 24 * 60 * 60 * 1000L;
+
+    // file format: magic, version, width, height, creation time, followed by width * height * 4 bytes of pixels
+    private static final int MAGIC = 0x43474d49;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE_BYTES = 24;
+
+    private static IconDiskCache instance;
+
+    private final File directory;
+    private final SharedPreferences preferences;
+
+    private IconDiskCache(@NonNull File directory, @NonNull SharedPreferences preferences) {
+        this.directory = directory;
+        this.preferences = preferences;
+    }
+
+    public static synchronized IconDiskCache getInstance(@NonNull Context context) {
+        if (instance == null) {
+            final Context applicationContext = context.getApplicationContext();
+            instance = new IconDiskCache(
+                    new File(applicationContext.getCacheDir(), DIRECTORY_NAME),
+                    applicationContext.getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE)
+            );
+        }
+        return instance;
+    }
+
+    /**
+     * @return the number of times the cache has been cleared, also by previous processes
+     */
+    @WorkerThread
+    public int getGeneration() {
+        return preferences.getInt(GENERATION_KEY, 0);
+    }
+
+    @WorkerThread
+    @Nullable
+    public Bitmap get(@NonNull String key) {
+        final File file = getFile(key);
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+
+            if (buffer.remaining() < HEADER_SIZE_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                deleteQuietly(file);
+                return null;
+            }
+            final int width = buffer.getInt();
+            final int height = buffer.getInt();
+            final long createdAt = buffer.getLong();
+            if (width <= 0 || height <= 0 || buffer.remaining() != width * height * 4) {
+                deleteQuietly(file);
+                return null;
+            }
+            if (System.currentTimeMillis() - createdAt > MAX_AGE_MS) {
+                deleteQuietly(file);
+                return null;
+            }
+
+            Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            bitmap.copyPixelsFromBuffer(buffer);
+
+            // mark as recently used, so it is not the first to be trimmed
+            file.setLastModified(System.currentTimeMillis());
+
+            return bitmap;
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Could not read cached icon", e);
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    @WorkerThread
+    public void put(@NonNull String key, @NonNull Bitmap bitmap) {
+        if (bitmap.getConfig() != Bitmap.Config.ARGB_8888) {
+            return;
+        }
+        if (!directory.exists() && !directory.mkdirs()) {
+            return;
+        }
+
+        final File file = getFile(key);
+        // write to a temporary file first, so a half written file is never read
+        final File temporaryFile = new File(directory, file.getName() + ".tmp");
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE_BYTES).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(bitmap.getWidth()).putInt(bitmap.getHeight()).putLong(System.currentTimeMillis());
+        header.flip();
+
+        final ByteBuffer pixels = ByteBuffer.allocate(bitmap.getByteCount());
+        bitmap.copyPixelsToBuffer(pixels);
+        pixels.flip();
+
+        try (FileOutputStream outputStream = new FileOutputStream(temporaryFile);
+             FileChannel channel = outputStream.getChannel()) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (pixels.hasRemaining()) {
+                channel.write(pixels);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Could not cache icon", e);
+            deleteQuietly(temporaryFile);
+            return;
+        }
+
+        if (!temporaryFile.renameTo(file)) {
+            deleteQuietly(temporaryFile);
+            return;
+        }
+
+        trimToSize();
+    }
+
+    /**
+     * Deletes all cached icons, and increments the generation.
+     */
+    @WorkerThread
+    public void clear() {
+        preferences.edit().putInt(GENERATION_KEY, getGeneration() + 1).apply();
+        final File[] files = directory.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            deleteQuietly(file);
+        }
+    }
+
+    private void trimToSize() {
+        final File[] files = directory.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+        if (files == null) {
+            return;
+        }
+
+        long totalSize = 0;
+        for (File file : files) {
+            totalSize += file.length();
+        }
+        if (totalSize <= MAX_SIZE_BYTES) {
+            return;
+        }
+
+        // delete the least recently used files first
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                return Long.compare(a.lastModified(), b.lastModified());
+            }
+        });
+        for (File file : files) {
+            if (totalSize <= MAX_SIZE_BYTES) {
+                break;
+            }
+            totalSize -= file.length();
+            deleteQuietly(file);
+        }
+    }
+
+    private File getFile(String key) {
+        return new File(directory, hash(key) + FILE_EXTENSION);
+    }
+
+    private static String hash(String key) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+            byte[] digest = messageDigest.digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder stringBuilder = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                stringBuilder.append(String.format("%02x", b));
+            }
+            return stringBuilder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-1 is always available on Android, but fall back to something that is file name safe
+            return Integer.toHexString(key.hashCode());
+        }
+    }
+
+    private static void deleteQuietly(File file) {
+        if (file.exists() && !file.delete()) {
+            Log.w(TAG, "Could not delete " + file.getName());
+        }
+    }
+}
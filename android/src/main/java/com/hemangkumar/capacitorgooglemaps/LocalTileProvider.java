@@ -0,0 +1,213 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.google.android.libraries.maps.model.Tile;
+import com.google.android.libraries.maps.model.TileProvider;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Provides raster tiles from the filesystem of the device, so custom base layers work without connectivity.
+ * Tiles are read from either an MBTiles file (an SQLite database, in which rows are numbered from the south, see TMS),
+ * or a directory with one image file per tile (e.g. `{z}/{x}/{y}.png`).
+ * The (encoded) tiles that have been read are kept in a byte-bounded cache, so panning back and forth does not hit the disk.
+ *
+ * `getTile` is called by the map on its own threads, concurrently,
+ * so an MBTiles file is read through a small pool of read-only connections.
+ */
+class LocalTileProvider implements TileProvider, Closeable {
+
+    private static final String TAG = "LocalTileProvider";
+    private static final int CONNECTION_POOL_SIZE = 3;
+    private static final long CONNECTION_TIMEOUT_MS = 5000;
+    private static final int CACHE_SIZE_BYTES = 4 * 1024 * 1024;
+
+    public static final String DEFAULT_PATH_TEMPLATE = "{z}/{x}/{y}.png";
+    public static final int DEFAULT_TILE_SIZE = 256;
+
+    private final int tileSize;
+
+    // either a directory with a path template
+    @Nullable
+    private final File directory;
+    private final String pathTemplate;
+
+    // or a pool of connections to an MBTiles file
+    @Nullable
+    private final ArrayBlockingQueue<SQLiteDatabase> connections;
+
+    private final LruCache<String, byte[]> tileCache = new LruCache<String, byte[]>(CACHE_SIZE_BYTES) {
+        @Override
+        protected int sizeOf(String key, byte[] data) {
+            return data.length;
+        }
+    };
+
+    private volatile boolean isClosed = false;
+
+    private LocalTileProvider(@Nullable File directory, String pathTemplate, @Nullable ArrayBlockingQueue<SQLiteDatabase> connections, int tileSize) {
+        this.directory = directory;
+        this.pathTemplate = pathTemplate;
+        this.connections = connections;
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * @param file an MBTiles file, or a directory of which the tiles are found by `pathTemplate`
+     * @param pathTemplate the path of a tile within the directory, with `{z}`, `{x}` and `{y}` placeholders
+     * @throws IOException when the file does not exist, or is not a valid MBTiles file
+     */
+    @WorkerThread
+    @NonNull
+    public static LocalTileProvider open(@NonNull File file, @NonNull String pathTemplate, int tileSize) throws IOException {
+        if (file.isDirectory()) {
+            return new LocalTileProvider(file, pathTemplate, null, tileSize);
+        }
+        if (!file.isFile()) {
+            throw new IOException("file not found: " + file.getPath());
+        }
+
+        final ArrayBlockingQueue<SQLiteDatabase> connections = new ArrayBlockingQueue<>(CONNECTION_POOL_SIZE);
+        try {
+            for (int i = 0; i < CONNECTION_POOL_SIZE; i++) {
+                connections.add(SQLiteDatabase.openDatabase(
+                        file.getPath(),
+                        null,
+                        SQLiteDatabase.OPEN_READONLY | SQLiteDatabase.NO_LOCALIZED_COLLATORS
+                ));
+            }
+            // fail early when this is not an MBTiles file
+            SQLiteDatabase connection = connections.peek();
+            if (connection != null) {
+                connection.rawQuery("SELECT 1 FROM tiles LIMIT 1", null).close();
+            }
+        } catch (SQLiteException e) {
+            for (SQLiteDatabase connection : connections) {
+                connection.close();
+            }
+            throw new IOException("invalid MBTiles file: " + file.getPath(), e);
+        }
+
+        return new LocalTileProvider(null, pathTemplate, connections, tileSize);
+    }
+
+    @Nullable
+    @Override
+    public Tile getTile(int x, int y, int zoom) {
+        if (isClosed) {
+            return NO_TILE;
+        }
+
+        final String key = zoom + "/" + x + "/" + y;
+        byte[] data = tileCache.get(key);
+        if (data == null) {
+            try {
+                data = connections != null ? readFromMBTiles(x, y, zoom) : readFromDirectory(x, y, zoom);
+            } catch (IOException | SQLiteException e) {
+                Log.w(TAG, "Could not read tile " + key, e);
+                return NO_TILE;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // the map will ask again later on
+                return null;
+            } catch (TimeoutException e) {
+                // all connections are busy, which does not mean the tile is missing, the map will ask again later on
+                return null;
+            }
+            if (data == null) {
+                return NO_TILE;
+            }
+            tileCache.put(key, data);
+        }
+
+        return new Tile(tileSize, tileSize, data);
+    }
+
+    /**
+     * @return the tile, or null if the file does not contain it
+     * @throws TimeoutException when no connection became available in time
+     */
+    @Nullable
+    private byte[] readFromMBTiles(int x, int y, int zoom) throws InterruptedException, TimeoutException {
+        final SQLiteDatabase connection = connections.poll(CONNECTION_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (connection == null) {
+            throw new TimeoutException("no connection available");
+        }
+
+        try {
+            // MBTiles numbers its rows from the south
+            final int row = (1 << zoom) - 1 - y;
+            try (Cursor cursor = connection.rawQuery(
+                    "SELECT tile_data FROM tiles WHERE zoom_level = ? AND tile_column = ? AND tile_row = ?",
+                    new String[] { String.valueOf(zoom), String.valueOf(x), String.valueOf(row) }
+            )) {
+                return cursor.moveToFirst() ? cursor.getBlob(0) : null;
+            }
+        } finally {
+            connections.offer(connection);
+            // `close` might have drained the pool right before this connection was returned
+            if (isClosed) {
+                closeConnections();
+            }
+        }
+    }
+
+    @Nullable
+    private byte[] readFromDirectory(int x, int y, int zoom) throws IOException {
+        final String path = pathTemplate
+                .replace("{z}", String.valueOf(zoom))
+                .replace("{x}", String.valueOf(x))
+                .replace("{y}", String.valueOf(y));
+        final File file = new File(directory, path);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        final byte[] data = new byte[(int) file.length()];
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            int offset = 0;
+            while (offset < data.length) {
+                final int count = inputStream.read(data, offset, data.length - offset);
+                if (count < 0) {
+                    throw new IOException("unexpected end of " + file.getPath());
+                }
+                offset += count;
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Closes the connections to the MBTiles file, connections that are in use are closed once they are returned.
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+        tileCache.evictAll();
+        closeConnections();
+    }
+
+    private void closeConnections() {
+        if (connections != null) {
+            SQLiteDatabase connection;
+            while ((connection = connections.poll()) != null) {
+                connection.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+/**
+ * The events a map can send to the WebView, each listened for by the plugin method of the same name (e.g. `didTapMap`).
+ */
+enum MapEvent {
+    DID_TAP_INFO_WINDOW,
+    DID_CLOSE_INFO_WINDOW,
+    DID_TAP_MAP,
+    DID_LONG_PRESS_MAP,
+    DID_TAP_MARKER,
+    DID_TAP_CLUSTER,
+    DID_BEGIN_DRAGGING_MARKER,
+    DID_DRAG_MARKER,
+    DID_END_DRAGGING_MARKER,
+    DID_TAP_MY_LOCATION_BUTTON,
+    DID_TAP_MY_LOCATION_DOT,
+    DID_TAP_POI,
+    DID_BEGIN_MOVING_CAMERA,
+    DID_MOVE_CAMERA,
+    DID_END_MOVING_CAMERA
+}
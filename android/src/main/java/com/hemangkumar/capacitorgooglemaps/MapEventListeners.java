@@ -0,0 +1,118 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * The JS callbacks listening for the events of a single map.
+ * Every event can have any number of listeners, each identified by the callback id of its (kept alive) PluginCall.
+ *
+ * All methods of this class should be called on the main thread.
+ */
+class MapEventListeners {
+
+    private static class Listener {
+        final String callbackId;
+        final boolean preventDefault;
+
+        Listener(String callbackId, boolean preventDefault) {
+            this.callbackId = callbackId;
+            this.preventDefault = preventDefault;
+        }
+    }
+
+    private static final String[] NO_CALLBACK_IDS = new String[0];
+
+    private final EnumMap<MapEvent, ArrayList<Listener>> listeners = new EnumMap<>(MapEvent.class);
+    // events are sent way more often than listeners change, so sending an event should not allocate anything
+    private final EnumMap<MapEvent, String[]> callbackIds = new EnumMap<>(MapEvent.class);
+
+    public void add(@NonNull MapEvent mapEvent, @NonNull String callbackId, boolean preventDefault) {
+        ArrayList<Listener> eventListeners = listeners.get(mapEvent);
+        if (eventListeners == null) {
+            eventListeners = new ArrayList<>();
+            listeners.put(mapEvent, eventListeners);
+        }
+        eventListeners.add(new Listener(callbackId, preventDefault));
+        updateCallbackIds(mapEvent);
+    }
+
+    /**
+     * @return the event the listener was listening for, or null if there was no such listener
+     */
+    @Nullable
+    public MapEvent remove(@NonNull String callbackId) {
+        for (MapEvent mapEvent : listeners.keySet()) {
+            ArrayList<Listener> eventListeners = listeners.get(mapEvent);
+            for (int i = 0; i < eventListeners.size(); i++) {
+                if (eventListeners.get(i).callbackId.equals(callbackId)) {
+                    eventListeners.remove(i);
+                    if (eventListeners.isEmpty()) {
+                        listeners.remove(mapEvent);
+                    }
+                    updateCallbackIds(mapEvent);
+                    return mapEvent;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the callback ids of all listeners, e.g. to release their PluginCalls
+     */
+    @NonNull
+    public List<String> removeAll() {
+        ArrayList<String> callbackIds = new ArrayList<>();
+        for (ArrayList<Listener> eventListeners : listeners.values()) {
+            for (Listener listener : eventListeners) {
+                callbackIds.add(listener.callbackId);
+            }
+        }
+        listeners.clear();
+        this.callbackIds.clear();
+        return callbackIds;
+    }
+
+    public boolean has(@NonNull MapEvent mapEvent) {
+        return listeners.containsKey(mapEvent);
+    }
+
+    /**
+     * @return whether any of the listeners of the event asked to prevent the default behaviour
+     */
+    public boolean isDefaultPrevented(@NonNull MapEvent mapEvent) {
+        ArrayList<Listener> eventListeners = listeners.get(mapEvent);
+        if (eventListeners != null) {
+            for (Listener listener : eventListeners) {
+                if (listener.preventDefault) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @NonNull
+    public String[] getCallbackIds(@NonNull MapEvent mapEvent) {
+        String[] eventCallbackIds = callbackIds.get(mapEvent);
+        return eventCallbackIds != null ? eventCallbackIds : NO_CALLBACK_IDS;
+    }
+
+    private void updateCallbackIds(MapEvent mapEvent) {
+        ArrayList<Listener> eventListeners = listeners.get(mapEvent);
+        if (eventListeners == null) {
+            callbackIds.remove(mapEvent);
+            return;
+        }
+        String[] eventCallbackIds = new String[eventListeners.size()];
+        for (int i = 0; i < eventCallbackIds.length; i++) {
+            eventCallbackIds[i] = eventListeners.get(i).callbackId;
+        }
+        callbackIds.put(mapEvent, eventCallbackIds);
+    }
+}
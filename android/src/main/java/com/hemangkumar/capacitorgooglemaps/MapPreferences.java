@@ -9,6 +9,8 @@ public class MapPreferences {
     public MapPreferencesGestures gestures;
     public MapPreferencesControls controls;
     public MapPreferencesAppearance appearance;
+    // can only be set when the map is created, since it determines what kind of map is created
+    public boolean isLiteMode = false;
 
     public MapPreferences() {
         this.gestures = new MapPreferencesGestures();
@@ -27,12 +29,19 @@ public class MapPreferences {
             // update appearance
             JSObject appearanceObject = preferences.getJSObject("appearance");
             this.appearance.updateFromJSObject(appearanceObject);
+            // update lite mode
+            if (preferences.has("liteMode")) {
+                this.isLiteMode = JSObjectDefaults.getBooleanSafe(preferences, "liteMode", false);
+            }
         }
     }
 
     public GoogleMapOptions generateGoogleMapOptions() {
         GoogleMapOptions googleMapOptions = new GoogleMapOptions();
 
+        // a lite mode map is a bitmap of the map that is not interactive, which uses a lot less memory
+        googleMapOptions.liteMode(this.isLiteMode);
+
         // set gestures
         if (this.gestures != null) {
             googleMapOptions.rotateGesturesEnabled(gestures.getBoolean(MapPreferencesGestures.ROTATE_ALLOWED_KEY));
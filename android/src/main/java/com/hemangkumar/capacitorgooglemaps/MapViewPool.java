@@ -0,0 +1,114 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.google.android.libraries.maps.GoogleMapOptions;
+import com.google.android.libraries.maps.MapView;
+
+import java.util.ArrayDeque;
+
+/**
+ * Keeps MapViews that are not shown, so a new map can reuse one instead of creating (and initializing) a MapView from scratch.
+ * MapViews are either created up front (see `prewarm`), or handed back when a map is removed (see `CustomMapView.release`).
+ * Pooled MapViews follow the lifecycle of the activity, just like the MapViews that are shown.
+ *
+ * All methods of this class should be called on the main thread.
+ */
+class MapViewPool {
+
+    private final AppCompatActivity activity;
+    private final ArrayDeque<MapView> mapViews = new ArrayDeque<>();
+
+    private int capacity = 0;
+    private boolean isResumed = false;
+
+    public MapViewPool(@NonNull AppCompatActivity activity) {
+        this.activity = activity;
+    }
+
+    /**
+     * @param capacity the maximum number of MapViews kept, or 0 to not keep any at all
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = Math.max(0, capacity);
+
+        while (mapViews.size() > this.capacity) {
+            mapViews.removeLast().onDestroy();
+        }
+    }
+
+    /**
+     * Creates MapViews until the pool is full, and initializes their maps, which takes the most time.
+     */
+    public void prewarm() {
+        while (mapViews.size() < capacity) {
+            MapView mapView = new MapView(activity, new GoogleMapOptions());
+            mapView.onCreate(null);
+            mapView.onStart();
+            if (isResumed) {
+                mapView.onResume();
+            }
+            mapView.getMapAsync(googleMap -> {
+                // nothing to do yet, the map is set up by the CustomMapView that will acquire it
+            });
+            mapViews.addLast(mapView);
+        }
+    }
+
+    /**
+     * @return a MapView that has been created and started already, or null if the pool is empty
+     */
+    @Nullable
+    public MapView acquire() {
+        return mapViews.pollFirst();
+    }
+
+    /**
+     * Keeps the given MapView for a next map, which should not be shown anymore and should have been reset.
+     *
+     * @return whether the MapView is kept, otherwise it should be destroyed by the caller
+     */
+    public boolean release(@NonNull MapView mapView) {
+        if (mapViews.size() >= capacity) {
+            return false;
+        }
+        mapViews.addLast(mapView);
+        return true;
+    }
+
+    public void handleOnStart() {
+        for (MapView mapView : mapViews) {
+            mapView.onStart();
+        }
+    }
+
+    public void handleOnResume() {
+        isResumed = true;
+        for (MapView mapView : mapViews) {
+            mapView.onResume();
+        }
+    }
+
+    public void handleOnPause() {
+        isResumed = false;
+        for (MapView mapView : mapViews) {
+            mapView.onPause();
+        }
+    }
+
+    public void handleOnStop() {
+        for (MapView mapView : mapViews) {
+            mapView.onStop();
+        }
+    }
+
+    public void handleOnDestroy() {
+        for (MapView mapView : mapViews) {
+            mapView.onDestroy();
+        }
+        mapViews.clear();
+        capacity = 0;
+    }
+}
@@ -0,0 +1,122 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.libraries.maps.model.LatLng;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Groups markers that are close to each other (on screen) into clusters, using a grid based algorithm.
+ * The world is projected (Web Mercator) at the given zoom level and divided into square cells of `gridSize` points.
+ * All markers within the same cell end up in the same cluster.
+ *
+ * This class does not touch the map, so it can (and should) be used on a background thread.
+ */
+class MarkerClusterer {
+
+    public static final int DEFAULT_GRID_SIZE = 60;
+    public static final int DEFAULT_MINIMUM_CLUSTER_SIZE = 2;
+
+    private static final double WORLD_SIZE_AT_ZOOM_0 = 256;
+
+    public static class Item {
+        public final String markerId;
+        public final double latitude;
+        public final double longitude;
+
+        public Item(@NonNull String markerId, double latitude, double longitude) {
+            this.markerId = markerId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    public static class Cluster {
+        public final String clusterId;
+        public final List<String> markerIds = new ArrayList<>();
+        private double latitudeSum = 0;
+        private double longitudeSum = 0;
+
+        Cluster(@NonNull String clusterId) {
+            this.clusterId = clusterId;
+        }
+
+        void add(Item item) {
+            markerIds.add(item.markerId);
+            latitudeSum += item.latitude;
+            longitudeSum += item.longitude;
+        }
+
+        public int getCount() {
+            return markerIds.size();
+        }
+
+        public LatLng getPosition() {
+            return new LatLng(latitudeSum / markerIds.size(), longitudeSum / markerIds.size());
+        }
+    }
+
+    private final int gridSize;
+    private final int minimumClusterSize;
+
+    public MarkerClusterer(int gridSize, int minimumClusterSize) {
+        this.gridSize = gridSize > 0 ? gridSize : DEFAULT_GRID_SIZE;
+        this.minimumClusterSize = Math.max(minimumClusterSize, DEFAULT_MINIMUM_CLUSTER_SIZE);
+    }
+
+    public int getMinimumClusterSize() {
+        return minimumClusterSize;
+    }
+
+    /**
+     * @return all cells that hold at least one item, as clusters.
+     * Clusters with less than `minimumClusterSize` items should be shown as separate markers.
+     */
+    public List<Cluster> cluster(@NonNull List<Item> items, float zoom) {
+        // use discrete zoom levels, so clusters do not change while zooming within one level
+        final int zoomLevel = (int) Math.floor(zoom);
+        final double worldSize = WORLD_SIZE_AT_ZOOM_0 * Math.pow(2, zoomLevel);
+        final double cellsPerRow = Math.ceil(worldSize / gridSize);
+
+        final HashMap<Long, Cluster> clustersByCell = new HashMap<>();
+        final List<Cluster> clusters = new ArrayList<>();
+
+        for (Item item : items) {
+            final double x = longitudeToWorldX(item.longitude) * worldSize;
+            final double y = latitudeToWorldY(item.latitude) * worldSize;
+            final long cellX = (long) Math.floor(x / gridSize);
+            final long cellY = (long) Math.floor(y / gridSize);
+            final long cell = (long) (cellY * cellsPerRow) + cellX;
+
+            Cluster cluster = clustersByCell.get(cell);
+            if (cluster == null) {
+                cluster = new Cluster("cluster_" + zoomLevel + "_" + cellX + "_" + cellY);
+                clustersByCell.put(cell, cluster);
+                clusters.add(cluster);
+            }
+            cluster.add(item);
+        }
+
+        return clusters;
+    }
+
+    /**
+     * @return the horizontal position of the given longitude in the world, in the range [0, 1]
+     */
+    static double longitudeToWorldX(double longitude) {
+        return longitude / 360 + 0.5;
+    }
+
+    /**
+     * @return the vertical position of the given latitude in the world (Web Mercator), in the range [0, 1]
+     */
+    static double latitudeToWorldY(double latitude) {
+        final double sin = Math.sin(Math.toRadians(latitude));
+        final double y = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+        // clamp, since the poles cannot be projected
+        return Math.min(Math.max(y, 0), 1);
+    }
+}
@@ -0,0 +1,167 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.libraries.maps.model.LatLng;
+import com.google.android.libraries.maps.model.Marker;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Moves the shown markers of a map to their new positions (e.g. of vehicles that are being tracked) smoothly,
+ * with a single frame callback for all of them instead of an animator per marker.
+ * Animations are kept in flat arrays, and the Marker of every animation is looked up by its marker id every frame,
+ * so markers that are removed (or hidden by clustering or viewport culling) in the meantime are simply skipped.
+ *
+ * All methods of this class should be called on the main thread.
+ */
+class MarkerPositionAnimator implements Choreographer.FrameCallback {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // the markers that are shown on the map, by their marker id
+    private final Map<String, Marker> markers;
+
+    private String[] markerIds = new String[INITIAL_CAPACITY];
+    private double[] fromLatitudes = new double[INITIAL_CAPACITY];
+    private double[] fromLongitudes = new double[INITIAL_CAPACITY];
+    private double[] toLatitudes = new double[INITIAL_CAPACITY];
+    private double[] toLongitudes = new double[INITIAL_CAPACITY];
+    // the start time of every animation, or -1 if it starts at the next frame
+    private long[] startTimesNanos = new long[INITIAL_CAPACITY];
+    private long[] durationsNanos = new long[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private final HashMap<String, Integer> indicesByMarkerId = new HashMap<>();
+    private boolean isFrameCallbackPosted = false;
+
+    public MarkerPositionAnimator(@NonNull Map<String, Marker> markers) {
+        this.markers = markers;
+    }
+
+    /**
+     * Moves the marker with the given id from `from` to `to` in the given duration,
+     * which replaces an animation of that marker that is still running.
+     */
+    public void animate(@NonNull String markerId, @NonNull LatLng from, @NonNull LatLng to, long durationMs) {
+        Integer existingIndex = indicesByMarkerId.get(markerId);
+        final int index;
+        if (existingIndex != null) {
+            index = existingIndex;
+        } else {
+            if (size == markerIds.length) {
+                grow(size * 2);
+            }
+            index = size++;
+            markerIds[index] = markerId;
+            indicesByMarkerId.put(markerId, index);
+        }
+
+        fromLatitudes[index] = from.latitude;
+        fromLongitudes[index] = from.longitude;
+        toLatitudes[index] = to.latitude;
+        toLongitudes[index] = to.longitude;
+        startTimesNanos[index] = -1;
+        durationsNanos[index] = Math.max(1, durationMs) * 1000000;
+
+        if (!isFrameCallbackPosted) {
+            isFrameCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Stops the animation of the marker with the given id (if any), leaving it where it is now.
+     */
+    public void cancel(@NonNull String markerId) {
+        Integer index = indicesByMarkerId.get(markerId);
+        if (index != null) {
+            remove(index);
+        }
+    }
+
+    public void cancelAll() {
+        Arrays.fill(markerIds, 0, size, null);
+        size = 0;
+        indicesByMarkerId.clear();
+        if (isFrameCallbackPosted) {
+            isFrameCallbackPosted = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        isFrameCallbackPosted = false;
+
+        // iterate backwards, since finished animations are replaced by the last one
+        for (int i = size - 1; i >= 0; i--) {
+            final Marker marker = markers.get(markerIds[i]);
+            if (marker == null) {
+                remove(i);
+                continue;
+            }
+
+            if (startTimesNanos[i] < 0) {
+                startTimesNanos[i] = frameTimeNanos;
+            }
+            final double fraction = Math.min(1, (double) (frameTimeNanos - startTimesNanos[i]) / durationsNanos[i]);
+            if (fraction >= 1) {
+                marker.setPosition(new LatLng(toLatitudes[i], toLongitudes[i]));
+                remove(i);
+                continue;
+            }
+
+            // take the shortest way around the world
+            double longitudeDelta = (toLongitudes[i] - fromLongitudes[i]) % 360;
+            if (longitudeDelta > 180) {
+                longitudeDelta -= 360;
+            } else if (longitudeDelta < -180) {
+                longitudeDelta += 360;
+            }
+            double longitude = fromLongitudes[i] + longitudeDelta * fraction;
+            if (longitude > 180) {
+                longitude -= 360;
+            } else if (longitude < -180) {
+                longitude += 360;
+            }
+            marker.setPosition(new LatLng(fromLatitudes[i] + (toLatitudes[i] - fromLatitudes[i]) * fraction, longitude));
+        }
+
+        if (size > 0) {
+            isFrameCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    private void remove(int index) {
+        indicesByMarkerId.remove(markerIds[index]);
+
+        final int last = --size;
+        if (index != last) {
+            markerIds[index] = markerIds[last];
+            fromLatitudes[index] = fromLatitudes[last];
+            fromLongitudes[index] = fromLongitudes[last];
+            toLatitudes[index] = toLatitudes[last];
+            toLongitudes[index] = toLongitudes[last];
+            startTimesNanos[index] = startTimesNanos[last];
+            durationsNanos[index] = durationsNanos[last];
+            indicesByMarkerId.put(markerIds[index], index);
+        }
+        markerIds[last] = null;
+    }
+
+    private void grow(int capacity) {
+        markerIds = Arrays.copyOf(markerIds, capacity);
+        fromLatitudes = Arrays.copyOf(fromLatitudes, capacity);
+        fromLongitudes = Arrays.copyOf(fromLongitudes, capacity);
+        toLatitudes = Arrays.copyOf(toLatitudes, capacity);
+        toLongitudes = Arrays.copyOf(toLongitudes, capacity);
+        startTimesNanos = Arrays.copyOf(startTimesNanos, capacity);
+        durationsNanos = Arrays.copyOf(durationsNanos, capacity);
+    }
+}
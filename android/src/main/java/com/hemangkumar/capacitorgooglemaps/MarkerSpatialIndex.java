@@ -0,0 +1,133 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A quadtree of marker positions, used to quickly find the markers within a certain (visible) region.
+ * Longitude is used as the x axis and latitude as the y axis, both in degrees.
+ *
+ * This class is not thread safe.
+ */
+class MarkerSpatialIndex {
+
+    private static final int MAX_ITEMS_PER_NODE = 32;
+    private static final int MAX_DEPTH = 18;
+
+    private static class Node {
+        final double minX;
+        final double minY;
+        final double maxX;
+        final double maxY;
+        final int depth;
+
+        ArrayList<MarkerClusterer.Item> items = new ArrayList<>();
+        Node[] children;
+
+        Node(double minX, double minY, double maxX, double maxY, int depth) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.depth = depth;
+        }
+
+        boolean intersects(double minX, double minY, double maxX, double maxY) {
+            return minX <= this.maxX && maxX >= this.minX && minY <= this.maxY && maxY >= this.minY;
+        }
+
+        Node getChild(double x, double y) {
+            final double midX = (minX + maxX) / 2;
+            final double midY = (minY + maxY) / 2;
+            return children[(x < midX ? 0 : 1) + (y < midY ? 0 : 2)];
+        }
+
+        void split() {
+            final double midX = (minX + maxX) / 2;
+            final double midY = (minY + maxY) / 2;
+            children = new Node[] {
+                    new Node(minX, minY, midX, midY, depth + 1),
+                    new Node(midX, minY, maxX, midY, depth + 1),
+                    new Node(minX, midY, midX, maxY, depth + 1),
+                    new Node(midX, midY, maxX, maxY, depth + 1),
+            };
+            for (MarkerClusterer.Item item : items) {
+                getChild(item.longitude, item.latitude).items.add(item);
+            }
+            items = null;
+        }
+    }
+
+    private Node root = createRoot();
+
+    private static Node createRoot() {
+        return new Node(-180, -90, 180, 90, 0);
+    }
+
+    public void clear() {
+        root = createRoot();
+    }
+
+    public void insert(@NonNull MarkerClusterer.Item item) {
+        Node node = root;
+        while (node.children != null) {
+            node = node.getChild(item.longitude, item.latitude);
+        }
+        node.items.add(item);
+
+        if (node.items.size() > MAX_ITEMS_PER_NODE && node.depth < MAX_DEPTH) {
+            node.split();
+        }
+    }
+
+    /**
+     * Removes the item with the given id, which should have been inserted with the given position.
+     *
+     * @return whether the item has been found (and removed)
+     */
+    public boolean remove(@NonNull String markerId, double latitude, double longitude) {
+        Node node = root;
+        while (node.children != null) {
+            node = node.getChild(longitude, latitude);
+        }
+        for (int i = 0; i < node.items.size(); i++) {
+            if (node.items.get(i).markerId.equals(markerId)) {
+                node.items.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds all items within the given bounds to `result`.
+     * If `west` is bigger than `east`, the bounds are considered to cross the antimeridian.
+     */
+    public void query(double south, double west, double north, double east, @NonNull List<MarkerClusterer.Item> result) {
+        if (west <= east) {
+            query(root, west, south, east, north, result);
+        } else {
+            query(root, west, south, 180, north, result);
+            query(root, -180, south, east, north, result);
+        }
+    }
+
+    private static void query(Node node, double minX, double minY, double maxX, double maxY, List<MarkerClusterer.Item> result) {
+        if (!node.intersects(minX, minY, maxX, maxY)) {
+            return;
+        }
+        if (node.children != null) {
+            for (Node child : node.children) {
+                query(child, minX, minY, maxX, maxY, result);
+            }
+            return;
+        }
+        for (MarkerClusterer.Item item : node.items) {
+            if (item.longitude >= minX && item.longitude <= maxX && item.latitude >= minY && item.latitude <= maxY) {
+                result.add(item);
+            }
+        }
+    }
+}
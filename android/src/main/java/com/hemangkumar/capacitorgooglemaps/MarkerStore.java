@@ -0,0 +1,256 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.getcapacitor.JSObject;
+import com.google.android.libraries.maps.model.LatLng;
+import com.google.android.libraries.maps.model.Marker;
+import com.google.android.libraries.maps.model.MarkerOptions;
+
+import org.json.JSONException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The state of all markers of a single map, kept in flat arrays that are indexed by an int handle.
+ * Event payloads are built from these arrays, instead of from a JSObject that is attached to every Marker as its tag,
+ * and markers are found by their own id or by the id of the Marker that is shown for them.
+ * Metadata is kept as a pre-serialized JSON string, which is only parsed when it is actually sent to the WebView.
+ *
+ * All methods of this class should be called on the main thread.
+ */
+class MarkerStore {
+
+    public static final int NO_HANDLE = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final byte FLAG_FLAT = 1;
+    private static final byte FLAG_DRAGGABLE = 1 << 1;
+
+    private String[] markerIds = new String[INITIAL_CAPACITY];
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private String[] snippets = new String[INITIAL_CAPACITY];
+    private float[] alphas = new float[INITIAL_CAPACITY];
+    private float[] zIndices = new float[INITIAL_CAPACITY];
+    private float[] anchorUs = new float[INITIAL_CAPACITY];
+    private float[] anchorVs = new float[INITIAL_CAPACITY];
+    private byte[] flags = new byte[INITIAL_CAPACITY];
+    private String[] metadataJsons = new String[INITIAL_CAPACITY];
+    // the id of the Marker that is shown for the marker, or null if it is not shown (e.g. because it is part of a cluster)
+    private String[] shownMarkerIds = new String[INITIAL_CAPACITY];
+
+    // the number of handles that have ever been used, handles of removed markers are reused first
+    private int handleCount = 0;
+    private int[] freeHandles = new int[INITIAL_CAPACITY];
+    private int freeHandleCount = 0;
+
+    private final HashMap<String, Integer> handlesByMarkerId = new HashMap<>();
+    private final HashMap<String, Integer> handlesByShownMarkerId = new HashMap<>();
+
+    /**
+     * Adds the state of the given marker, or replaces it when a marker with the same id already exists.
+     *
+     * @return the handle of the marker
+     */
+    public int put(@NonNull CustomMarker customMarker) {
+        Integer existingHandle = handlesByMarkerId.get(customMarker.markerId);
+        final int handle;
+        if (existingHandle != null) {
+            handle = existingHandle;
+        } else {
+            handle = allocateHandle();
+            handlesByMarkerId.put(customMarker.markerId, handle);
+        }
+
+        final MarkerOptions markerOptions = customMarker.getMarkerOptions();
+        markerIds[handle] = customMarker.markerId;
+        latitudes[handle] = markerOptions.getPosition().latitude;
+        longitudes[handle] = markerOptions.getPosition().longitude;
+        titles[handle] = markerOptions.getTitle();
+        snippets[handle] = markerOptions.getSnippet();
+        alphas[handle] = markerOptions.getAlpha();
+        zIndices[handle] = markerOptions.getZIndex();
+        anchorUs[handle] = markerOptions.getAnchorU();
+        anchorVs[handle] = markerOptions.getAnchorV();
+        flags[handle] = (byte) ((markerOptions.isFlat() ? FLAG_FLAT : 0) | (markerOptions.isDraggable() ? FLAG_DRAGGABLE : 0));
+        metadataJsons[handle] = customMarker.getMetadataJson();
+
+        return handle;
+    }
+
+    public void remove(String markerId) {
+        Integer handle = handlesByMarkerId.remove(markerId);
+        if (handle == null) {
+            return;
+        }
+
+        if (shownMarkerIds[handle] != null) {
+            handlesByShownMarkerId.remove(shownMarkerIds[handle]);
+        }
+        markerIds[handle] = null;
+        titles[handle] = null;
+        snippets[handle] = null;
+        metadataJsons[handle] = null;
+        shownMarkerIds[handle] = null;
+
+        if (freeHandleCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, freeHandles.length * 2);
+        }
+        freeHandles[freeHandleCount++] = handle;
+    }
+
+    /**
+     * Keeps track of the Marker that is shown for the marker with the given id, so it can be found by `getHandle(Marker)`.
+     */
+    public void attach(String markerId, @NonNull Marker marker) {
+        Integer handle = handlesByMarkerId.get(markerId);
+        if (handle == null) {
+            return;
+        }
+
+        if (shownMarkerIds[handle] != null) {
+            handlesByShownMarkerId.remove(shownMarkerIds[handle]);
+        }
+        shownMarkerIds[handle] = marker.getId();
+        handlesByShownMarkerId.put(marker.getId(), handle);
+    }
+
+    /**
+     * Forgets the given Marker, because it has been removed from the map.
+     */
+    public void detach(@NonNull Marker marker) {
+        Integer handle = handlesByShownMarkerId.remove(marker.getId());
+        if (handle != null && marker.getId().equals(shownMarkerIds[handle])) {
+            shownMarkerIds[handle] = null;
+        }
+    }
+
+    public int getHandle(String markerId) {
+        Integer handle = handlesByMarkerId.get(markerId);
+        return handle != null ? handle : NO_HANDLE;
+    }
+
+    /**
+     * @return the handle of the marker for which the given Marker is shown, or NO_HANDLE if it is not a marker of this store
+     */
+    public int getHandle(@NonNull Marker marker) {
+        Integer handle = handlesByShownMarkerId.get(marker.getId());
+        return handle != null ? handle : NO_HANDLE;
+    }
+
+    public String getMarkerId(int handle) {
+        return markerIds[handle];
+    }
+
+    public void setPosition(int handle, @NonNull LatLng position) {
+        latitudes[handle] = position.latitude;
+        longitudes[handle] = position.longitude;
+    }
+
+    /**
+     * @param position the position to use instead of the stored one, e.g. the position of a Marker that is being dragged
+     */
+    public JSObject getResult(int handle, String mapId, @Nullable LatLng position) {
+        // initialize JSObjects to return
+        JSObject result = new JSObject();
+        JSObject markerResult = new JSObject();
+        JSObject preferencesResult = new JSObject();
+        JSObject anchorResult = new JSObject();
+
+        result.put("marker", markerResult);
+        markerResult.put("mapId", mapId);
+        markerResult.put("markerId", markerIds[handle]);
+        markerResult.put("position", getPositionResult(handle, position));
+        markerResult.put("preferences", preferencesResult);
+
+        preferencesResult.put("title", titles[handle]);
+        preferencesResult.put("snippet", snippets[handle]);
+        preferencesResult.put("opacity", alphas[handle]);
+        preferencesResult.put("isFlat", (flags[handle] & FLAG_FLAT) != 0);
+        preferencesResult.put("isDraggable", (flags[handle] & FLAG_DRAGGABLE) != 0);
+        preferencesResult.put("zIndex", zIndices[handle]);
+        preferencesResult.put("anchor", anchorResult);
+        preferencesResult.put("metadata", parseMetadata(metadataJsons[handle]));
+
+        anchorResult.put("x", anchorUs[handle]);
+        anchorResult.put("y", anchorVs[handle]);
+
+        return result;
+    }
+
+    /**
+     * Same as `getResult`, but only with the id and position of the marker.
+     * Meant for high frequency events (e.g. dragging), which should be as cheap as possible.
+     */
+    public JSObject getCompactResult(int handle, String mapId, @Nullable LatLng position) {
+        JSObject result = new JSObject();
+        JSObject markerResult = new JSObject();
+
+        result.put("marker", markerResult);
+        markerResult.put("mapId", mapId);
+        markerResult.put("markerId", markerIds[handle]);
+        markerResult.put("position", getPositionResult(handle, position));
+
+        return result;
+    }
+
+    public void clear() {
+        Arrays.fill(markerIds, 0, handleCount, null);
+        Arrays.fill(titles, 0, handleCount, null);
+        Arrays.fill(snippets, 0, handleCount, null);
+        Arrays.fill(metadataJsons, 0, handleCount, null);
+        Arrays.fill(shownMarkerIds, 0, handleCount, null);
+        handleCount = 0;
+        freeHandleCount = 0;
+        handlesByMarkerId.clear();
+        handlesByShownMarkerId.clear();
+    }
+
+    private JSObject getPositionResult(int handle, @Nullable LatLng position) {
+        JSObject positionResult = new JSObject();
+        positionResult.put("latitude", position != null ? position.latitude : latitudes[handle]);
+        positionResult.put("longitude", position != null ? position.longitude : longitudes[handle]);
+        return positionResult;
+    }
+
+    private static JSObject parseMetadata(@Nullable String metadataJson) {
+        if (metadataJson == null) {
+            return new JSObject();
+        }
+        try {
+            return new JSObject(metadataJson);
+        } catch (JSONException e) {
+            return new JSObject();
+        }
+    }
+
+    private int allocateHandle() {
+        if (freeHandleCount > 0) {
+            return freeHandles[--freeHandleCount];
+        }
+        if (handleCount == markerIds.length) {
+            grow(markerIds.length * 2);
+        }
+        return handleCount++;
+    }
+
+    private void grow(int capacity) {
+        markerIds = Arrays.copyOf(markerIds, capacity);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        longitudes = Arrays.copyOf(longitudes, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        snippets = Arrays.copyOf(snippets, capacity);
+        alphas = Arrays.copyOf(alphas, capacity);
+        zIndices = Arrays.copyOf(zIndices, capacity);
+        anchorUs = Arrays.copyOf(anchorUs, capacity);
+        anchorVs = Arrays.copyOf(anchorVs, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        metadataJsons = Arrays.copyOf(metadataJsons, capacity);
+        shownMarkerIds = Arrays.copyOf(shownMarkerIds, capacity);
+    }
+}
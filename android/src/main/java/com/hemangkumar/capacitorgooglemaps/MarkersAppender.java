@@ -1,7 +1,10 @@
 package com.hemangkumar.capacitorgooglemaps;
 
 import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
 
+import androidx.annotation.Nullable;
 import androidx.core.util.Consumer;
 
 import com.getcapacitor.JSArray;
@@ -9,35 +12,103 @@ import com.getcapacitor.JSObject;
 import com.getcapacitor.PluginCall;
 import com.google.android.libraries.maps.model.Marker;
 
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class MarkersAppender {
 
     public static class AppenderException extends Exception {
+        public AppenderException(String message) {
+            super(message);
+        }
+
         public AppenderException(String message, Throwable cause) {
             super(message, cause);
         }
     }
 
-    private final Object syncRoot = new Object();
-    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+    public static final String INSERTION_MODE_SEQUENTIAL = "sequential";
+    public static final String INSERTION_MODE_FRAME_BUDGETED = "frameBudgeted";
+
+    public static final String RESULT_MODE_FULL = "full";
+    public static final String RESULT_MODE_IDS_ONLY = "ids-only";
+    public static final String RESULT_MODE_COUNT_ONLY = "count-only";
+
+    public static class InsertionOptions {
+        public String mode = INSERTION_MODE_SEQUENTIAL;
+        public int maxMarkersPerFrame = MarkersFrameInserter.DEFAULT_MAX_MARKERS_PER_FRAME;
+        public int frameBudgetMs = MarkersFrameInserter.DEFAULT_FRAME_BUDGET_MS;
+        public String resultMode = RESULT_MODE_FULL;
+
+        public void updateFromPluginCall(PluginCall call) {
+            mode = call.getString("insertionMode", INSERTION_MODE_SEQUENTIAL);
+            resultMode = call.getString("resultMode", RESULT_MODE_FULL);
+            Integer maxMarkersPerFrame = call.getInt("maxMarkersPerFrame");
+            if (maxMarkersPerFrame != null) {
+                this.maxMarkersPerFrame = maxMarkersPerFrame;
+            }
+            Integer frameBudgetMs = call.getInt("frameBudget");
+            if (frameBudgetMs != null) {
+                this.frameBudgetMs = frameBudgetMs;
+            }
+        }
+    }
+
+    private final Executor executor;
     private Throwable currentException = null;
     private final AtomicBoolean isException = new AtomicBoolean(false);
 
+    public MarkersAppender(Executor executor) {
+        this.executor = executor;
+    }
+
     public void addMarkers(final CustomMapView customMapView,
                            final JSArray jsMarkers,
                            final Activity activity,
+                           final InsertionOptions insertionOptions,
                            Consumer<JSObject> resultConsumer) throws AppenderException {
         final List<CustomMarker> customMarkers = createCustomMarkers(jsMarkers);
-        addCustomMarkers(customMarkers, customMapView, activity, resultConsumer);
+        insertCustomMarkers(customMarkers, customMapView, activity, insertionOptions, resultConsumer);
+    }
+
+    /**
+     * Same as `addMarkers`, but for markers given as columns (see `createCustomMarkersFromColumns`).
+     */
+    public void addMarkersFromColumns(final CustomMapView customMapView,
+                                      final JSObject jsColumns,
+                                      final Activity activity,
+                                      final InsertionOptions insertionOptions,
+                                      Consumer<JSObject> resultConsumer) throws AppenderException {
+        final List<CustomMarker> customMarkers = createCustomMarkersFromColumns(jsColumns);
+        insertCustomMarkers(customMarkers, customMapView, activity, insertionOptions, resultConsumer);
+    }
+
+    private void insertCustomMarkers(final List<CustomMarker> customMarkers,
+                                     final CustomMapView customMapView,
+                                     final Activity activity,
+                                     final InsertionOptions insertionOptions,
+                                     Consumer<JSObject> resultConsumer) {
+        if (INSERTION_MODE_FRAME_BUDGETED.equals(insertionOptions.mode)) {
+            addCustomMarkersFrameBudgeted(customMarkers, customMapView, activity, insertionOptions, resultConsumer);
+        } else {
+            addCustomMarkers(customMarkers, customMapView, activity, insertionOptions, resultConsumer);
+        }
+    }
+
+    public void setMarkers(final CustomMapView customMapView,
+                           final JSArray jsMarkers,
+                           final Activity activity,
+                           final InsertionOptions insertionOptions,
+                           Consumer<JSObject> resultConsumer) throws AppenderException {
+        final List<CustomMarker> customMarkers = createCustomMarkers(jsMarkers);
+        activity.runOnUiThread(() -> customMapView.setMarkers(customMarkers, insertionOptions, resultConsumer));
     }
 
     private List<CustomMarker> createCustomMarkers(final JSArray jsMarkers) throws AppenderException {
@@ -54,7 +125,7 @@ public class MarkersAppender {
             if (isException.get()) {
                 break;
             }
-            executorService.execute(() -> {
+            executor.execute(() -> {
                 try {
                     JSONObject jsonObject = (JSONObject) jsMarkers.get(fi);
                     JSObject jsObject = JSObject.fromJSONObject(jsonObject);
@@ -95,58 +166,157 @@ public class MarkersAppender {
         return customMarkers;
     }
 
+    /**
+     * Creates markers from parallel arrays instead of an object per marker.
+     * Example source of JSObject:
+     * {
+     *   latitudes: [52.1, 52.2] (or a base64 string of a Float64Array),
+     *   longitudes: [4.1, 4.2] (or a base64 string of a Float64Array),
+     *   markerIds: ['a', 'b'] (optional),
+     *   styles: [{ icon: {...}, anchor: {...}, zIndex: 1, ... }] (optional, same as MarkerPreferences),
+     *   styleIndices: [0, 0] (optional, or a base64 string of an Int32Array)
+     * }
+     * Every style is only parsed once, after which all markers using it are created in a tight loop.
+     */
+    private List<CustomMarker> createCustomMarkersFromColumns(final JSObject jsColumns) throws AppenderException {
+        try {
+            final double[] latitudes = PackedArrays.decodeDoubles(jsColumns.opt("latitudes"));
+            final double[] longitudes = PackedArrays.decodeDoubles(jsColumns.opt("longitudes"));
+            if (latitudes == null || longitudes == null || latitudes.length != longitudes.length) {
+                throw new AppenderException("latitudes and longitudes should be given and have the same length");
+            }
+            final int n = latitudes.length;
+
+            final int[] styleIndices = PackedArrays.decodeInts(jsColumns.opt("styleIndices"));
+            if (styleIndices != null && styleIndices.length != n) {
+                throw new AppenderException("styleIndices should have the same length as latitudes");
+            }
+
+            final JSONArray jsMarkerIds = jsColumns.optJSONArray("markerIds");
+            if (jsMarkerIds != null && jsMarkerIds.length() != n) {
+                throw new AppenderException("markerIds should have the same length as latitudes");
+            }
+
+            // parse every style once, into a marker that serves as a template
+            final JSONArray jsStyles = jsColumns.optJSONArray("styles");
+            final int nStyles = jsStyles != null ? jsStyles.length() : 0;
+            final CustomMarker[] templates = new CustomMarker[Math.max(1, nStyles)];
+            for (int i = 0; i < templates.length; i++) {
+                JSObject jsTemplate = new JSObject();
+                jsTemplate.put("preferences", nStyles > 0 ? JSObject.fromJSONObject(jsStyles.getJSONObject(i)) : new JSObject());
+                templates[i] = new CustomMarker();
+                templates[i].updateFromJSObject(jsTemplate);
+            }
+
+            final List<CustomMarker> customMarkers = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                final int styleIndex = styleIndices != null ? styleIndices[i] : 0;
+                if (styleIndex < 0 || styleIndex >= templates.length) {
+                    throw new AppenderException("style index " + styleIndex + " is out of range");
+                }
+                final String markerId = jsMarkerIds != null && !jsMarkerIds.isNull(i) ? jsMarkerIds.optString(i) : null;
+                customMarkers.add(CustomMarker.fromTemplate(templates[styleIndex], markerId, latitudes[i], longitudes[i]));
+            }
+            return customMarkers;
+        } catch (JSONException exception) {
+            throw new AppenderException("exception in createCustomMarkersFromColumns", exception);
+        }
+    }
+
     private void addCustomMarkers(final List<CustomMarker> customMarkers,
                                   final CustomMapView customMapView,
                                   final Activity activity,
+                                  final InsertionOptions insertionOptions,
                                   Consumer<JSObject> resultConsumer) {
         final int n = customMarkers.size();
-        final List<JSObject> result = new ArrayList<>(n);
-        final AtomicInteger nMarkersAdded = new AtomicInteger(0);
-        final AtomicBoolean isMarkerAdded = new AtomicBoolean(false);
-
-        executorService.execute(() -> {
-            for (CustomMarker customMarker : customMarkers) {
-                activity.runOnUiThread(() -> {
-                    customMapView.addMarker(
-                            customMarker,
-                            (marker) -> {
-                                result.add(
-                                        (JSObject) CustomMarker.getResultForMarker(
-                                                marker,
-                                                customMapView.getId())
-                                                .opt("marker")
-                                );
-                                synchronized (syncRoot) {
-                                    isMarkerAdded.set(true);
-                                    syncRoot.notify();
-                                }
-                                if (nMarkersAdded.addAndGet(1) == n) {
-                                    JSObject jsResult = new JSObject();
-                                    jsResult.put("mapId", customMapView.getId());
-                                    JSArray jsMarkerOutputEntries = JSArray.from(result.toArray());
-                                    jsResult.put("markers", jsMarkerOutputEntries);
-                                    resultConsumer.accept(jsResult);
-                                }
-                            }
-                    );
-                }); // end of runOnUiThread
-                synchronized (syncRoot) {
-                    try {
-                        // wait for Marker is rendered before the next iteration
-                        // here is a background thread -> No UI freeze
-                        while (!isMarkerAdded.get()) {
-                            syncRoot.wait();
-                            if (!isMarkerAdded.get()) {
-                                continue;
+        final Object[] result = new Object[n];
+
+        if (n == 0) {
+            resultConsumer.accept(buildResult(customMapView, insertionOptions, result));
+            return;
+        }
+
+        // Markers are added one by one, every marker as soon as its icon is ready.
+        // Every marker is added in its own message of the main thread, so the map keeps rendering in between,
+        // and no (background) thread has to wait for the icons.
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+        activity.runOnUiThread(new Runnable() {
+            private int index = 0;
+
+            @Override
+            public void run() {
+                final int currentIndex = index;
+                final CustomMarker customMarker = customMarkers.get(currentIndex);
+                customMapView.prepareMarker(
+                        customMarker,
+                        () -> {
+                            Marker marker = customMapView.addPreparedMarker(customMarker);
+                            result[currentIndex] = getResultEntry(customMapView, insertionOptions, customMarker, marker);
+                            if (++index < n) {
+                                mainHandler.post(this);
+                            } else {
+                                resultConsumer.accept(buildResult(customMapView, insertionOptions, result));
                             }
-                            isMarkerAdded.set(false);
-                            break;
                         }
-                    } catch (InterruptedException ignored) {
-                        break;
-                    }
-                }
-            } // end for
-        }); // end of execute
+                );
+            }
+        });
+    }
+
+    private void addCustomMarkersFrameBudgeted(final List<CustomMarker> customMarkers,
+                                               final CustomMapView customMapView,
+                                               final Activity activity,
+                                               final InsertionOptions insertionOptions,
+                                               Consumer<JSObject> resultConsumer) {
+        final int n = customMarkers.size();
+        final Object[] result = new Object[n];
+
+        activity.runOnUiThread(() -> {
+            // Markers are added in the order their icons become available,
+            // but the result keeps the order in which they were given.
+            final MarkersFrameInserter inserter = new MarkersFrameInserter(
+                    customMapView,
+                    n,
+                    insertionOptions.maxMarkersPerFrame,
+                    insertionOptions.frameBudgetMs,
+                    (index, customMarker, marker) -> result[index] = getResultEntry(customMapView, insertionOptions, customMarker, marker),
+                    () -> resultConsumer.accept(buildResult(customMapView, insertionOptions, result))
+            );
+
+            for (int i = 0; i < n; i++) {
+                final int index = i;
+                final CustomMarker customMarker = customMarkers.get(i);
+                customMapView.prepareMarker(customMarker, () -> inserter.enqueue(index, customMarker));
+            }
+        });
+    }
+
+    /**
+     * @return what should be part of the result for a single marker, depending on the result mode:
+     * the complete marker, only its id, or nothing at all (when only the number of markers is returned)
+     */
+    @Nullable
+    private static Object getResultEntry(CustomMapView customMapView, InsertionOptions insertionOptions, CustomMarker customMarker, @Nullable Marker marker) {
+        if (RESULT_MODE_COUNT_ONLY.equals(insertionOptions.resultMode)) {
+            return null;
+        }
+        if (RESULT_MODE_IDS_ONLY.equals(insertionOptions.resultMode)) {
+            return customMarker.markerId;
+        }
+        return customMapView.getResultForMarker(customMarker, marker).opt("marker");
+    }
+
+    private static JSObject buildResult(CustomMapView customMapView, InsertionOptions insertionOptions, Object[] resultEntries) {
+        JSObject jsResult = new JSObject();
+        jsResult.put("mapId", customMapView.getId());
+        if (RESULT_MODE_COUNT_ONLY.equals(insertionOptions.resultMode)) {
+            jsResult.put("count", resultEntries.length);
+        } else if (RESULT_MODE_IDS_ONLY.equals(insertionOptions.resultMode)) {
+            jsResult.put("markerIds", JSArray.from(resultEntries));
+        } else {
+            JSArray jsMarkerOutputEntries = JSArray.from(resultEntries);
+            jsResult.put("markers", jsMarkerOutputEntries);
+        }
+        return jsResult;
     }
 }
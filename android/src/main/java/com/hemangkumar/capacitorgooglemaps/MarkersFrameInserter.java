@@ -0,0 +1,111 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.libraries.maps.model.Marker;
+
+import java.util.ArrayDeque;
+
+/**
+ * Adds prepared markers to a map in slices, one slice per frame.
+ * Every frame at most `maxMarkersPerFrame` markers are added, or less if adding them
+ * takes longer than `frameBudgetMs`. This way the map keeps rendering (and panning smoothly)
+ * while a big batch of markers is being inserted.
+ *
+ * All methods of this class should be called on the main thread.
+ */
+class MarkersFrameInserter implements Choreographer.FrameCallback {
+
+    public static final int DEFAULT_MAX_MARKERS_PER_FRAME = 100;
+    public static final int DEFAULT_FRAME_BUDGET_MS = 8;
+
+    public interface OnMarkerAdded {
+        /**
+         * @param marker the Marker that has been added to the map,
+         *               or null if it is not shown (yet) because clustering decides whether it should be shown
+         */
+        void onMarkerAdded(int index, CustomMarker customMarker, @Nullable Marker marker);
+    }
+
+    private static class Entry {
+        final int index;
+        final CustomMarker customMarker;
+
+        Entry(int index, CustomMarker customMarker) {
+            this.index = index;
+            this.customMarker = customMarker;
+        }
+    }
+
+    private final CustomMapView customMapView;
+    private final int expectedCount;
+    private final int maxMarkersPerFrame;
+    private final long frameBudgetNanos;
+    private final OnMarkerAdded onMarkerAdded;
+    private final Runnable onFinished;
+
+    private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+    private int addedCount = 0;
+    private boolean isFrameCallbackPosted = false;
+
+    public MarkersFrameInserter(@NonNull CustomMapView customMapView,
+                                int expectedCount,
+                                int maxMarkersPerFrame,
+                                int frameBudgetMs,
+                                @NonNull OnMarkerAdded onMarkerAdded,
+                                @NonNull Runnable onFinished) {
+        this.customMapView = customMapView;
+        this.expectedCount = expectedCount;
+        this.maxMarkersPerFrame = maxMarkersPerFrame > 0 ? maxMarkersPerFrame : DEFAULT_MAX_MARKERS_PER_FRAME;
+        this.frameBudgetNanos = (frameBudgetMs > 0 ? frameBudgetMs : DEFAULT_FRAME_BUDGET_MS) * 1_000_000L;
+        this.onMarkerAdded = onMarkerAdded;
+        this.onFinished = onFinished;
+
+        if (expectedCount == 0) {
+            onFinished.run();
+        }
+    }
+
+    /**
+     * Queues a marker of which the icon has already been loaded (see `CustomMarker.prepare`).
+     * It will be added to the map during one of the next frames.
+     */
+    public void enqueue(int index, @NonNull CustomMarker customMarker) {
+        queue.addLast(new Entry(index, customMarker));
+        if (!isFrameCallbackPosted) {
+            isFrameCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        isFrameCallbackPosted = false;
+
+        final long start = SystemClock.elapsedRealtimeNanos();
+        int addedThisFrame = 0;
+
+        while (!queue.isEmpty() && addedThisFrame < maxMarkersPerFrame) {
+            Entry entry = queue.pollFirst();
+            Marker marker = customMapView.addPreparedMarker(entry.customMarker);
+            onMarkerAdded.onMarkerAdded(entry.index, entry.customMarker, marker);
+            addedThisFrame++;
+            addedCount++;
+
+            if (SystemClock.elapsedRealtimeNanos() - start >= frameBudgetNanos) {
+                break;
+            }
+        }
+
+        if (addedCount == expectedCount) {
+            onFinished.run();
+        } else if (!queue.isEmpty()) {
+            isFrameCallbackPosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+}
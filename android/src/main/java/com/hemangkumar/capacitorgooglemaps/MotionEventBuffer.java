@@ -0,0 +1,161 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import android.view.MotionEvent;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Keeps copies of the touch events of the current gesture, while it is not known yet whether they should be delegated to a map.
+ * The first event (the ACTION_DOWN) is always kept, followed by a ring of at most `capacity` of the latest events.
+ * When the ring is full, the oldest ACTION_MOVE is dropped (and recycled right away), since a map can do without
+ * some intermediate positions, but not without the ACTION_POINTER_DOWN and ACTION_POINTER_UP events of a gesture.
+ *
+ * When a gesture has not been claimed by a map for longer than `maxAgeMs`, it will not be anymore,
+ * so all its events are dropped and nothing more is buffered until the next gesture starts.
+ *
+ * All methods of this class should be called on the main thread.
+ */
+class MotionEventBuffer {
+
+    public static final int DEFAULT_CAPACITY = 64;
+    public static final int DEFAULT_MAX_AGE_MS = 1000;
+
+    private MotionEvent firstEvent;
+    private MotionEvent[] events;
+    private int start = 0;
+    private int size = 0;
+
+    private long maxAgeMs;
+    private boolean isCompactingMoves;
+    private boolean isAbandoned = false;
+
+    public MotionEventBuffer() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_AGE_MS, false);
+    }
+
+    public MotionEventBuffer(int capacity, long maxAgeMs, boolean isCompactingMoves) {
+        configure(capacity, maxAgeMs, isCompactingMoves);
+    }
+
+    /**
+     * @param capacity the maximum number of events kept after the first one
+     * @param maxAgeMs the maximum duration of a gesture that is still being buffered
+     * @param isCompactingMoves whether consecutive ACTION_MOVE events should be replaced by the latest one,
+     *                          since the map only needs to know where the pointers are now
+     */
+    public void configure(int capacity, long maxAgeMs, boolean isCompactingMoves) {
+        clear();
+        this.events = new MotionEvent[Math.max(1, capacity)];
+        this.maxAgeMs = maxAgeMs;
+        this.isCompactingMoves = isCompactingMoves;
+    }
+
+    /**
+     * Adds a copy of the event, the given event itself can be reused by its owner.
+     */
+    public void add(@NonNull MotionEvent event) {
+        if (isAbandoned) {
+            return;
+        }
+
+        if (firstEvent == null) {
+            firstEvent = MotionEvent.obtain(event);
+            return;
+        }
+
+        if (maxAgeMs > 0 && event.getEventTime() - firstEvent.getEventTime() > maxAgeMs) {
+            abandon();
+            return;
+        }
+
+        if (isCompactingMoves && size > 0 && event.getActionMasked() == MotionEvent.ACTION_MOVE) {
+            final int lastIndex = (start + size - 1) % events.length;
+            final MotionEvent lastEvent = events[lastIndex];
+            if (lastEvent.getActionMasked() == MotionEvent.ACTION_MOVE && lastEvent.getPointerCount() == event.getPointerCount()) {
+                lastEvent.recycle();
+                events[lastIndex] = MotionEvent.obtain(event);
+                return;
+            }
+        }
+
+        if (size == events.length && !dropOldestMove()) {
+            // the ring is full of events that should not be dropped, so the gesture cannot be delegated consistently anymore
+            abandon();
+            return;
+        }
+        events[(start + size) % events.length] = MotionEvent.obtain(event);
+        size++;
+    }
+
+    /**
+     * @return whether events are not buffered anymore until the next gesture starts,
+     * in which case the current gesture should not be delegated to a map anymore
+     */
+    public boolean isAbandoned() {
+        return isAbandoned;
+    }
+
+    private void abandon() {
+        clear();
+        isAbandoned = true;
+    }
+
+    /**
+     * Removes the oldest ACTION_MOVE from the ring, by moving the events after it one place back.
+     *
+     * @return whether there was an ACTION_MOVE to remove
+     */
+    private boolean dropOldestMove() {
+        for (int i = 0; i < size; i++) {
+            final int index = (start + i) % events.length;
+            if (events[index].getActionMasked() == MotionEvent.ACTION_MOVE) {
+                events[index].recycle();
+                for (int j = i; j < size - 1; j++) {
+                    events[(start + j) % events.length] = events[(start + j + 1) % events.length];
+                }
+                events[(start + size - 1) % events.length] = null;
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return (firstEvent != null ? 1 : 0) + size;
+    }
+
+    /**
+     * @return the event at the given index, which stays owned by this buffer
+     */
+    @NonNull
+    public MotionEvent get(int index) {
+        if (firstEvent == null || index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size());
+        }
+        if (index == 0) {
+            return firstEvent;
+        }
+        return events[(start + index - 1) % events.length];
+    }
+
+    /**
+     * Recycles all events, and starts buffering again (e.g. because a new gesture starts).
+     */
+    public void clear() {
+        if (firstEvent != null) {
+            firstEvent.recycle();
+            firstEvent = null;
+        }
+        if (events != null) {
+            for (int i = 0; i < size; i++) {
+                final int index = (start + i) % events.length;
+                events[index].recycle();
+                events[index] = null;
+            }
+        }
+        start = 0;
+        size = 0;
+        isAbandoned = false;
+    }
+}
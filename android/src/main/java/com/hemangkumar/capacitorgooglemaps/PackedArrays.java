@@ -0,0 +1,91 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import android.util.Base64;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Decodes numeric arrays that are sent by the WebView in bulk, e.g. the coordinates of thousands of markers.
+ * An array can either be a regular JSON array of numbers, or a base64 string of the bytes of a (little endian)
+ * typed array, e.g. `Float64Array` for doubles and `Int32Array` for ints.
+ * The latter is a lot smaller and faster to decode, since no JSON numbers have to be parsed.
+ */
+class PackedArrays {
+
+    private PackedArrays() {
+    }
+
+    /**
+     * @param value a JSONArray of numbers, or a base64 string of a little endian `Float64Array`
+     * @return the decoded doubles, or null if there is no value
+     */
+    @Nullable
+    public static double[] decodeDoubles(@Nullable Object value) throws JSONException {
+        if (value == null || value == JSONObject.NULL) {
+            return null;
+        }
+        if (value instanceof String) {
+            final ByteBuffer buffer = decodeBase64((String) value, 8);
+            final double[] result = new double[buffer.remaining() / 8];
+            buffer.asDoubleBuffer().get(result);
+            return result;
+        }
+        if (value instanceof JSONArray) {
+            final JSONArray jsonArray = (JSONArray) value;
+            final double[] result = new double[jsonArray.length()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = jsonArray.getDouble(i);
+            }
+            return result;
+        }
+        throw new JSONException("expected an array of numbers or a base64 string, but got " + value.getClass().getSimpleName());
+    }
+
+    /**
+     * @param value a JSONArray of numbers, or a base64 string of a little endian `Int32Array`
+     * @return the decoded ints, or null if there is no value
+     */
+    @Nullable
+    public static int[] decodeInts(@Nullable Object value) throws JSONException {
+        if (value == null || value == JSONObject.NULL) {
+            return null;
+        }
+        if (value instanceof String) {
+            final ByteBuffer buffer = decodeBase64((String) value, 4);
+            final int[] result = new int[buffer.remaining() / 4];
+            buffer.asIntBuffer().get(result);
+            return result;
+        }
+        if (value instanceof JSONArray) {
+            final JSONArray jsonArray = (JSONArray) value;
+            final int[] result = new int[jsonArray.length()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = jsonArray.getInt(i);
+            }
+            return result;
+        }
+        throw new JSONException("expected an array of numbers or a base64 string, but got " + value.getClass().getSimpleName());
+    }
+
+    @NonNull
+    private static ByteBuffer decodeBase64(String value, int elementSize) throws JSONException {
+        final byte[] bytes;
+        try {
+            bytes = Base64.decode(value, Base64.DEFAULT);
+        } catch (IllegalArgumentException e) {
+            throw new JSONException("invalid base64 string");
+        }
+        if (bytes.length % elementSize != 0) {
+            throw new JSONException("the number of bytes should be a multiple of " + elementSize);
+        }
+        return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
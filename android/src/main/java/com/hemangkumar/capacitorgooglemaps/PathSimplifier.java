@@ -0,0 +1,157 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Simplifies paths (e.g. GPS tracks of tens of thousands of points) with the Douglas-Peucker algorithm,
+ * so only the points that are visible at a certain zoom level have to be drawn.
+ * Points are compared in Web Mercator world coordinates, in which the world is 1 by 1,
+ * so a tolerance in pixels at a certain zoom level converts to world coordinates directly.
+ *
+ * All methods are pure, so they can (and should) be called on a background thread.
+ */
+class PathSimplifier {
+
+    // the width of the world in density independent pixels at zoom level 0
+    private static final double WORLD_SIZE_DP = 256;
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private PathSimplifier() {
+    }
+
+    /**
+     * @return the tolerance in world coordinates for the given tolerance in density independent pixels at the given zoom level
+     */
+    public static double getTolerance(double toleranceDp, int zoom) {
+        return toleranceDp / (WORLD_SIZE_DP * Math.pow(2, zoom));
+    }
+
+    /**
+     * Converts latitudes and longitudes into world coordinates.
+     *
+     * @param xs receives the x (from west to east) of every point
+     * @param ys receives the y (from north to south) of every point
+     */
+    public static void project(@NonNull double[] latitudes, @NonNull double[] longitudes, @NonNull double[] xs, @NonNull double[] ys) {
+        for (int i = 0; i < latitudes.length; i++) {
+            final double latitude = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitudes[i]));
+            final double sin = Math.sin(Math.toRadians(latitude));
+            xs[i] = (longitudes[i] + 180) / 360;
+            ys[i] = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+        }
+    }
+
+    /**
+     * @param isClosed whether the path is a ring (e.g. the outline of a polygon), in which case the first point
+     *                 is not a good anchor by itself, so the point farthest away from it is kept as well
+     * @return the (ascending) indices of the points that should be kept
+     */
+    @NonNull
+    public static int[] simplify(@NonNull double[] xs, @NonNull double[] ys, double tolerance, boolean isClosed) {
+        final int n = xs.length;
+        if (n <= 2 || tolerance <= 0) {
+            return range(n);
+        }
+
+        final boolean[] isKept = new boolean[n];
+        isKept[0] = true;
+        isKept[n - 1] = true;
+
+        // ranges (first and last index) that still have to be simplified, to not recurse for long paths
+        int[] ranges = new int[64];
+        int size = 0;
+
+        if (isClosed) {
+            int farthestIndex = 0;
+            double farthestDistance = -1;
+            for (int i = 1; i < n - 1; i++) {
+                final double dx = xs[i] - xs[0];
+                final double dy = ys[i] - ys[0];
+                final double distance = dx * dx + dy * dy;
+                if (distance > farthestDistance) {
+                    farthestDistance = distance;
+                    farthestIndex = i;
+                }
+            }
+            isKept[farthestIndex] = true;
+            ranges[size++] = 0;
+            ranges[size++] = farthestIndex;
+            ranges[size++] = farthestIndex;
+            ranges[size++] = n - 1;
+        } else {
+            ranges[size++] = 0;
+            ranges[size++] = n - 1;
+        }
+
+        final double squaredTolerance = tolerance * tolerance;
+        while (size > 0) {
+            final int last = ranges[--size];
+            final int first = ranges[--size];
+
+            int maxIndex = -1;
+            double maxDistance = squaredTolerance;
+            for (int i = first + 1; i < last; i++) {
+                final double distance = getSquaredSegmentDistance(xs[i], ys[i], xs[first], ys[first], xs[last], ys[last]);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    maxIndex = i;
+                }
+            }
+
+            if (maxIndex >= 0) {
+                isKept[maxIndex] = true;
+                if (size + 4 > ranges.length) {
+                    ranges = Arrays.copyOf(ranges, ranges.length * 2);
+                }
+                ranges[size++] = first;
+                ranges[size++] = maxIndex;
+                ranges[size++] = maxIndex;
+                ranges[size++] = last;
+            }
+        }
+
+        int count = 0;
+        for (boolean kept : isKept) {
+            if (kept) {
+                count++;
+            }
+        }
+        final int[] indices = new int[count];
+        for (int i = 0, j = 0; i < n; i++) {
+            if (isKept[i]) {
+                indices[j++] = i;
+            }
+        }
+        return indices;
+    }
+
+    private static double getSquaredSegmentDistance(double x, double y, double x1, double y1, double x2, double y2) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+
+        if (dx != 0 || dy != 0) {
+            final double t = ((x - x1) * dx + (y - y1) * dy) / (dx * dx + dy * dy);
+            if (t > 1) {
+                x1 = x2;
+                y1 = y2;
+            } else if (t > 0) {
+                x1 += dx * t;
+                y1 += dy * t;
+            }
+        }
+
+        dx = x - x1;
+        dy = y - y1;
+        return dx * dx + dy * dy;
+    }
+
+    private static int[] range(int n) {
+        final int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+}
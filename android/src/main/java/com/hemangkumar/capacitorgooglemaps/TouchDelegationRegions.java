@@ -0,0 +1,103 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import android.graphics.RectF;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+
+import org.json.JSONException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The regions of the WebView in which maps are shown, and the regions in which HTML elements are shown on top of them.
+ * These are pushed by the WebView whenever its layout changes, so touches can be delegated to the correct map
+ * right away, instead of asking the WebView which element has been touched (see `didRequestElementFromPoint`).
+ *
+ * Instances are immutable, so they can be created on any thread.
+ */
+class TouchDelegationRegions {
+
+    private final String[] mapIds;
+    private final RectF[] mapRects;
+    private final RectF[] exclusionRects;
+
+    private TouchDelegationRegions(String[] mapIds, RectF[] mapRects, RectF[] exclusionRects) {
+        this.mapIds = mapIds;
+        this.mapRects = mapRects;
+        this.exclusionRects = exclusionRects;
+    }
+
+    /**
+     * Example source of JSArrays:
+     * mapRegions: [{ mapId: '...', boundingRect: { x: 0, y: 0, width: 320, height: 200 } }]
+     * exclusionRegions: [{ x: 10, y: 10, width: 50, height: 50 }]
+     *
+     * @param scale to convert the (CSS) pixels of the WebView into real pixels
+     */
+    @NonNull
+    public static TouchDelegationRegions fromJSArrays(@NonNull JSArray jsMapRegions, @NonNull JSArray jsExclusionRegions, float scale) throws JSONException {
+        final List<String> mapIds = new ArrayList<>();
+        final List<RectF> mapRects = new ArrayList<>();
+        for (int i = 0; i < jsMapRegions.length(); i++) {
+            JSObject jsMapRegion = JSObject.fromJSONObject(jsMapRegions.getJSONObject(i));
+            String mapId = jsMapRegion.getString("mapId");
+            if (mapId != null) {
+                mapIds.add(mapId);
+                mapRects.add(getRect(jsMapRegion.getJSObject("boundingRect"), scale));
+            }
+        }
+
+        final RectF[] exclusionRects = new RectF[jsExclusionRegions.length()];
+        for (int i = 0; i < exclusionRects.length; i++) {
+            exclusionRects[i] = getRect(JSObject.fromJSONObject(jsExclusionRegions.getJSONObject(i)), scale);
+        }
+
+        return new TouchDelegationRegions(
+                mapIds.toArray(new String[0]),
+                mapRects.toArray(new RectF[0]),
+                exclusionRects
+        );
+    }
+
+    private static RectF getRect(@Nullable JSObject jsBoundingRect, float scale) {
+        BoundingRect boundingRect = new BoundingRect();
+        boundingRect.updateFromJSObject(jsBoundingRect);
+        return new RectF(
+                boundingRect.x * scale,
+                boundingRect.y * scale,
+                (boundingRect.x + boundingRect.width) * scale,
+                (boundingRect.y + boundingRect.height) * scale
+        );
+    }
+
+    /**
+     * @return whether the point (in real pixels of the WebView) is covered by an HTML element that is shown on top of the maps
+     */
+    public boolean isExcluded(float x, float y) {
+        for (RectF exclusionRect : exclusionRects) {
+            if (exclusionRect.contains(x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the id of the map shown at the point (in real pixels of the WebView), or null if there is none.
+     * When maps overlap, the one that has been pushed last is considered to be on top.
+     */
+    @Nullable
+    public String findMapId(float x, float y) {
+        for (int i = mapRects.length - 1; i >= 0; i--) {
+            if (mapRects[i].contains(x, y)) {
+                return mapIds[i];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.hemangkumar.capacitorgooglemaps;
+
+import androidx.annotation.NonNull;
+
+import com.getcapacitor.JSObject;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The background threads of the plugin, shared by all maps.
+ * It is sized by the number of cores and lives as long as the plugin does
+ * (it is created in `load()` and shut down in `handleOnDestroy()`).
+ */
+class WorkerPool implements Executor {
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final ThreadPoolExecutor threadPoolExecutor;
+
+    public WorkerPool() {
+        final int poolSize = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        threadPoolExecutor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new WorkerThreadFactory()
+        );
+        // do not keep idle threads around when nothing is happening
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(@NonNull Runnable runnable) {
+        threadPoolExecutor.execute(runnable);
+    }
+
+    public void shutdown() {
+        threadPoolExecutor.shutdownNow();
+    }
+
+    public JSObject getStats() {
+        JSObject result = new JSObject();
+        result.put("poolSize", threadPoolExecutor.getPoolSize());
+        result.put("maximumPoolSize", threadPoolExecutor.getMaximumPoolSize());
+        result.put("activeCount", threadPoolExecutor.getActiveCount());
+        result.put("queueDepth", threadPoolExecutor.getQueue().size());
+        result.put("completedTaskCount", threadPoolExecutor.getCompletedTaskCount());
+        return result;
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(runnable, "CapacitorGoogleMaps-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+}
@@ -3,6 +3,10 @@ import { PluginListenerHandle } from "@capacitor/core";
 import {
   // methods
   InitializeOptions,
+  SetTouchDelegationRegionsOptions,
+  GetWorkerPoolStatsResult,
+  PreloadIconsOptions,
+  PreloadIconsResult,
   CreateMapOptions,
   CreateMapResult,
   UpdateMapOptions,
@@ -10,18 +14,40 @@ import {
   RemoveMapOptions,
   ClearMapOptions,
   MoveCameraOptions,
+  AnimateCameraPathOptions,
+  AnimateCameraPathResult,
   ElementFromPointResultOptions,
+  RemoveMapListenerOptions,
   AddMarkerOptions,
   AddMarkerResult,
   AddMarkersOptions,
   AddMarkersResult,
+  SetMarkersOptions,
+  SetMarkersResult,
   RemoveMarkerOptions,
+  UpdateMarkerPositionsOptions,
+  UpdateMarkerPositionsResult,
+  SetMarkerClusteringOptions,
+  SetViewportCullingOptions,
+  ConfigureDidMoveCameraOptions,
+  ConfigureDidDragMarkerOptions,
+  GetClusterMembersOptions,
+  GetClusterMembersResult,
+  AddShapeOptions,
+  AddShapeResult,
+  RemoveShapeOptions,
+  AddHeatmapOptions,
+  AddHeatmapResult,
+  AddLocalTileOverlayOptions,
+  AddLocalTileOverlayResult,
+  RemoveTileOverlayOptions,
   // events
   DidTapInfoWindowCallback,
   DidCloseInfoWindowCallback,
   DidTapMapCallback,
   DidLongPressMapCallback,
   DidTapMarkerCallback,
+  DidTapClusterCallback,
   DidBeginDraggingMarkerCallback,
   DidDragMarkerCallback,
   DidEndDraggingMarkerCallback,
@@ -55,6 +81,35 @@ export interface DidRequestElementFromPointResult {
 export interface CapacitorGoogleMapsPlugin {
   initialize(options: InitializeOptions): Promise<void>;
 
+  /**
+   * (Android only)
+   * Tells the native side where maps and overlaying HTML elements are in the WebView, so touches can be delegated to the correct map right away.
+   * Should be called whenever the layout changes.
+   * Touches outside of the given regions still fall back to asking the WebView (see `didRequestElementFromPoint`).
+   */
+  setTouchDelegationRegions(options: SetTouchDelegationRegionsOptions): Promise<void>;
+
+  /**
+   * (Android only)
+   * Returns statistics about the background threads that are shared by all maps, e.g. for parsing markers.
+   * Mainly useful for debugging performance issues.
+   */
+  getWorkerPoolStats(): Promise<GetWorkerPoolStatsResult>;
+
+  /**
+   * (Android only)
+   * Loads and decodes the given icons in the background and keeps them in the (shared) icon cache,
+   * so markers using these icons can be added without waiting for them to load.
+   */
+  preloadIcons(options: PreloadIconsOptions): Promise<PreloadIconsResult>;
+
+  /**
+   * (Android only)
+   * Clears the icon caches, in memory as well as on disk, so all icons are loaded from their url again.
+   * Rendered SVG icons expire after 7 days by themselves, use this when icons have changed on the server before that.
+   */
+  clearIconCache(): Promise<void>;
+
   createMap(options: CreateMapOptions): Promise<CreateMapResult>;
 
   updateMap(options: UpdateMapOptions): Promise<UpdateMapResult>;
@@ -65,12 +120,108 @@ export interface CapacitorGoogleMapsPlugin {
 
   moveCamera(options: MoveCameraOptions): Promise<void>;
 
+  /**
+   * (Android only)
+   * Moves the camera along a path of keyframes natively, resolving once the path has ended or has been interrupted.
+   */
+  animateCameraPath(
+    options: AnimateCameraPathOptions
+  ): Promise<AnimateCameraPathResult>;
+
   addMarker(options: AddMarkerOptions): Promise<AddMarkerResult>;
 
   addMarkers(options: AddMarkersOptions): Promise<AddMarkersResult>;
 
+  /**
+   * (Android only)
+   * Makes the markers on the map equal to the given set of markers,
+   * by only adding, removing and updating the markers that have changed.
+   */
+  setMarkers(options: SetMarkersOptions): Promise<SetMarkersResult>;
+
   removeMarker(options: RemoveMarkerOptions): Promise<void>;
 
+  /**
+   * (Android only)
+   * Moves many existing markers at once (e.g. for live tracking), animating them natively to their new positions.
+   */
+  updateMarkerPositions(
+    options: UpdateMarkerPositionsOptions
+  ): Promise<UpdateMarkerPositionsResult>;
+
+  /**
+   * (Android only)
+   * Enables or disables native clustering of the markers on the map.
+   */
+  setMarkerClustering(options: SetMarkerClusteringOptions): Promise<void>;
+
+  /**
+   * (Android only)
+   * Enables or disables viewport culling, which only shows the markers within (or near) the visible region of the map.
+   */
+  setViewportCulling(options: SetViewportCullingOptions): Promise<void>;
+
+  /**
+   * (Android only)
+   * Sets how often and with what result `didMoveCamera` events are sent.
+   * These options apply to the map, so to all of its `didMoveCamera` listeners.
+   */
+  configureDidMoveCamera(options: ConfigureDidMoveCameraOptions): Promise<void>;
+
+  /**
+   * (Android only)
+   * Sets how often and with what result `didDragMarker` events are sent.
+   * These options apply to the map, so to all of its `didDragMarker` listeners.
+   */
+  configureDidDragMarker(options: ConfigureDidDragMarkerOptions): Promise<void>;
+
+  /**
+   * (Android only)
+   * Returns the ids of the markers in a cluster, e.g. after `didTapCluster` fired.
+   */
+  getClusterMembers(
+    options: GetClusterMembersOptions
+  ): Promise<GetClusterMembersResult>;
+
+  /**
+   * (Android only)
+   * Adds a polyline, of which the full resolution path is kept natively,
+   * while the map only shows a version of it that is simplified for the current zoom level.
+   */
+  addPolyline(options: AddShapeOptions): Promise<AddShapeResult>;
+
+  /**
+   * (Android only)
+   * Same as `addPolyline`, but for a polygon.
+   */
+  addPolygon(options: AddShapeOptions): Promise<AddShapeResult>;
+
+  /**
+   * (Android only)
+   * Removes a polyline or polygon that has been added by `addPolyline` or `addPolygon`.
+   */
+  removeShape(options: RemoveShapeOptions): Promise<void>;
+
+  /**
+   * (Android only)
+   * Adds a heatmap of (weighted) points, which is rendered natively into tiles.
+   */
+  addHeatmap(options: AddHeatmapOptions): Promise<AddHeatmapResult>;
+
+  /**
+   * (Android only)
+   * Adds raster tiles from an MBTiles file or a directory on the device, so custom base layers work offline.
+   */
+  addLocalTileOverlay(
+    options: AddLocalTileOverlayOptions
+  ): Promise<AddLocalTileOverlayResult>;
+
+  /**
+   * (Android only)
+   * Removes a tile overlay, e.g. a heatmap that has been added by `addHeatmap`.
+   */
+  removeTileOverlay(options: RemoveTileOverlayOptions): Promise<void>;
+
   didTapInfoWindow(
     options: DefaultEventOptions,
     callback: DidTapInfoWindowCallback
@@ -96,6 +247,15 @@ export interface CapacitorGoogleMapsPlugin {
     callback: DidTapMarkerCallback
   ): Promise<CallbackID>;
 
+  /**
+   * (Android only)
+   * Fires when a cluster marker is tapped (see `setMarkerClustering`).
+   */
+  didTapCluster(
+    options: DefaultEventWithPreventDefaultOptions,
+    callback: DidTapClusterCallback
+  ): Promise<CallbackID>;
+
   didBeginDraggingMarker(
     options: DefaultEventOptions,
     callback: DidBeginDraggingMarkerCallback
@@ -141,6 +301,13 @@ export interface CapacitorGoogleMapsPlugin {
     callback: DidEndMovingCameraCallback
   ): Promise<CallbackID>;
 
+  /**
+   * (Android only)
+   * Removes a listener that has been added by one of the event methods above (e.g. `didTapMarker`).
+   * An event can have multiple listeners, when the last one is removed the map stops listening for the event altogether.
+   */
+  removeMapListener(options: RemoveMapListenerOptions): Promise<void>;
+
   /**
    * After `didRequestElementFromPoint` fires, this method is used to let the WebView know whether or not to delegate the touch event to a certain MapView.
    * It is handled automatically and you should probably not use it.
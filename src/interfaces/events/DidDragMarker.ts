@@ -1,10 +1,31 @@
-import { Marker } from "./../../definitions";
+import { LatLng, Marker } from "./../../definitions";
 
 export interface DidDragMarkerResult {
   marker: Marker;
 }
 
+/**
+ * (Android only)
+ * Sent instead of `DidDragMarkerResult` when `compactResult` has been enabled by `configureDidDragMarker`.
+ */
+export interface DidDragMarkerCompactResult {
+  marker: {
+    /**
+     * @since 2.1.0
+     */
+    mapId: string;
+    /**
+     * @since 2.1.0
+     */
+    markerId: string;
+    /**
+     * @since 2.1.0
+     */
+    position: LatLng;
+  };
+}
+
 export type DidDragMarkerCallback = (
-  result: DidDragMarkerResult | null,
+  result: DidDragMarkerResult | DidDragMarkerCompactResult | null,
   err?: any
 ) => void;
@@ -1,4 +1,23 @@
+import { CameraPosition, LatLngBounds } from "./../../definitions";
+
+/**
+ * (Android only)
+ * Only sent when `includeCameraPosition` has been enabled by `configureDidMoveCamera`.
+ */
+export interface DidMoveCameraResult {
+  /**
+   * @since 2.1.0
+   */
+  cameraPosition: CameraPosition;
+  /**
+   * The area of the map that is currently visible.
+   *
+   * @since 2.1.0
+   */
+  bounds: LatLngBounds;
+}
+
 export type DidMoveCameraCallback = (
-  result: undefined | null,
+  result: DidMoveCameraResult | undefined | null,
   err?: any
 ) => void;
@@ -0,0 +1,10 @@
+import { MarkerCluster } from "./../../definitions";
+
+export interface DidTapClusterResult {
+  cluster: MarkerCluster;
+}
+
+export type DidTapClusterCallback = (
+  result: DidTapClusterResult | null,
+  err?: any
+) => void;
@@ -1,14 +1,31 @@
 // methods
 export { InitializeOptions } from "./methods/Initialize";
+export { SetTouchDelegationRegionsOptions, TouchDelegationMapRegion } from "./methods/SetTouchDelegationRegions";
+export { GetWorkerPoolStatsResult } from "./methods/GetWorkerPoolStats";
+export { PreloadIconsOptions, PreloadIconsResult, PreloadIconsResultEntry } from "./methods/PreloadIcons";
 export { CreateMapOptions, CreateMapResult } from "./methods/CreateMap";
 export { UpdateMapOptions, UpdateMapResult } from "./methods/UpdateMap";
 export { RemoveMapOptions } from "./methods/RemoveMap";
 export { ClearMapOptions } from "./methods/ClearMap";
 export { MoveCameraOptions } from "./methods/MoveCamera";
+export { AnimateCameraPathOptions, CameraKeyframe, AnimateCameraPathResult } from "./methods/AnimateCameraPath";
 export { ElementFromPointResultOptions } from "./methods/ElementFromPointResult";
+export { RemoveMapListenerOptions } from "./methods/RemoveMapListener";
 export { AddMarkerOptions, AddMarkerResult } from "./methods/AddMarker";
-export { AddMarkersOptions, MarkerInputEntry, AddMarkersResult } from "./methods/AddMarkers";
+export { AddMarkersOptions, MarkerInputEntry, MarkerColumns, AddMarkersResult } from "./methods/AddMarkers";
+export { SetMarkersOptions, SetMarkersResult } from "./methods/SetMarkers";
 export { RemoveMarkerOptions } from "./methods/RemoveMarker";
+export { UpdateMarkerPositionsOptions, UpdateMarkerPositionsResult } from "./methods/UpdateMarkerPositions";
+export { SetMarkerClusteringOptions } from "./methods/SetMarkerClustering";
+export { SetViewportCullingOptions } from "./methods/SetViewportCulling";
+export { ConfigureDidMoveCameraOptions } from "./methods/ConfigureDidMoveCamera";
+export { ConfigureDidDragMarkerOptions } from "./methods/ConfigureDidDragMarker";
+export { GetClusterMembersOptions, GetClusterMembersResult } from "./methods/GetClusterMembers";
+export { AddShapeOptions, ShapePath, ShapePreferences, AddShapeResult } from "./methods/AddShape";
+export { RemoveShapeOptions } from "./methods/RemoveShape";
+export { AddHeatmapOptions, HeatmapPoints, HeatmapPreferences, AddHeatmapResult } from "./methods/AddHeatmap";
+export { AddLocalTileOverlayOptions, LocalTileOverlayPreferences, AddLocalTileOverlayResult } from "./methods/AddLocalTileOverlay";
+export { RemoveTileOverlayOptions } from "./methods/RemoveTileOverlay";
 
 // events
 export * from "./events/DidTapInfoWindow";
@@ -16,6 +33,7 @@ export * from "./events/DidCloseInfoWindow";
 export * from "./events/DidTapMap";
 export * from "./events/DidLongPressMap";
 export * from "./events/DidTapMarker";
+export * from "./events/DidTapCluster";
 export * from "./events/DidBeginDraggingMarker";
 export * from "./events/DidDragMarker";
 export * from "./events/DidEndDraggingMarker";
@@ -30,6 +48,7 @@ export * from "./events/DidEndMovingCamera";
 export { CameraMovementReason } from "./models/GoogleMap/Camera/MovementReason";
 export { CameraPosition } from "./models/GoogleMap/Camera/Position";
 export { Marker } from "./models/GoogleMap/Marker/Marker";
+export { MarkerCluster } from "./models/GoogleMap/Marker/MarkerCluster";
 export { MarkerPreferences } from "./models/GoogleMap/Marker/MarkerPreferences";
 export { MarkerIcon } from "./models/GoogleMap/Marker/MarkerIcon";
 export { MarkerIconSize } from "./models/GoogleMap/Marker/MarkerIconSize";
@@ -41,3 +60,4 @@ export { MapPreferences } from "./models/GoogleMap/Preferences";
 export { PointOfInterest } from "./models/GoogleMap/PointOfInterest";
 export { BoundingRect } from "./models/BoundingRect";
 export { LatLng } from "./models/LatLng";
+export { LatLngBounds } from "./models/LatLngBounds";
@@ -0,0 +1,101 @@
+export interface AddHeatmapOptions {
+  /**
+   * The identifier of the map to which this method should be applied.
+   *
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * Unique id of this heatmap. If not given, a GUID will be generated.
+   * If a heatmap (or other tile overlay) with the same id already exists on the map, it will be replaced,
+   * which is the way to update the points of a heatmap.
+   *
+   * @since 2.1.0
+   */
+  tileOverlayId?: string;
+  /**
+   * @since 2.1.0
+   */
+  points: HeatmapPoints;
+  /**
+   * @since 2.1.0
+   */
+  preferences?: HeatmapPreferences;
+}
+
+/**
+ * The points of a heatmap as columns, so (hundreds of) thousands of points can be sent at once.
+ * Every array can also be a base64 string of the bytes of a (little endian) `Float64Array`,
+ * which is a lot smaller and faster to decode.
+ */
+export interface HeatmapPoints {
+  /**
+   * @since 2.1.0
+   */
+  latitudes: number[] | string;
+  /**
+   * @since 2.1.0
+   */
+  longitudes: number[] | string;
+  /**
+   * The weight of every point, which should be finite and not negative. If not given, every point has a weight of 1.
+   *
+   * @since 2.1.0
+   */
+  weights?: number[] | string;
+}
+
+export interface HeatmapPreferences {
+  /**
+   * The radius in density independent pixels of the blur around every point, from 1 to 50.
+   * Larger values are clamped, since every tile is rendered with a margin of this radius.
+   *
+   * @default 20
+   * @since 2.1.0
+   */
+  radius?: number;
+  /**
+   * The colors from low to high intensity, as `#RRGGBB` or `#AARRGGBB`, which are spread evenly.
+   * Low intensities fade in from transparent.
+   *
+   * @default ["#00FF00", "#FFFF00", "#FF0000"]
+   * @since 2.1.0
+   */
+  colors?: string[];
+  /**
+   * The intensity (sum of weights) that gets the last color.
+   * If not given, it is derived from the points for every zoom level.
+   *
+   * @since 2.1.0
+   */
+  maxIntensity?: number;
+  /**
+   * This is a value from 0 to 1, where 0 means the heatmap is completely transparent and 1 means it is completely opaque.
+   *
+   * @default 0.7
+   * @since 2.1.0
+   */
+  opacity?: number;
+  /**
+   * The stack order of this heatmap, relative to other tile overlays and shapes on the map.
+   *
+   * @default 0
+   * @since 2.1.0
+   */
+  zIndex?: number;
+}
+
+export interface AddHeatmapResult {
+  /**
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * @since 2.1.0
+   */
+  tileOverlayId: string;
+  /**
+   * @since 2.1.0
+   */
+  pointCount: number;
+}
@@ -0,0 +1,70 @@
+export interface AddLocalTileOverlayOptions {
+  /**
+   * The identifier of the map to which this method should be applied.
+   *
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * Unique id of this tile overlay. If not given, a GUID will be generated.
+   * If a tile overlay with the same id already exists on the map, it will be replaced.
+   *
+   * @since 2.1.0
+   */
+  tileOverlayId?: string;
+  /**
+   * The path of an MBTiles file, or of a directory with one image file per tile.
+   * Relative paths are relative to the files directory of the app (`Directory.Data` of `@capacitor/filesystem`),
+   * `file://` URIs are supported as well.
+   *
+   * @since 2.1.0
+   */
+  path: string;
+  /**
+   * The path of a tile within the directory, with `{z}`, `{x}` and `{y}` placeholders (numbering rows from the north).
+   * Only used when `path` is a directory.
+   *
+   * @default "{z}/{x}/{y}.png"
+   * @since 2.1.0
+   */
+  pathTemplate?: string;
+  /**
+   * The width and height of the tiles in pixels.
+   *
+   * @default 256
+   * @since 2.1.0
+   */
+  tileSize?: number;
+  /**
+   * @since 2.1.0
+   */
+  preferences?: LocalTileOverlayPreferences;
+}
+
+export interface LocalTileOverlayPreferences {
+  /**
+   * This is a value from 0 to 1, where 0 means the tiles are completely transparent and 1 means they are completely opaque.
+   *
+   * @default 1
+   * @since 2.1.0
+   */
+  opacity?: number;
+  /**
+   * The stack order of this tile overlay, relative to other tile overlays and shapes on the map.
+   *
+   * @default 0
+   * @since 2.1.0
+   */
+  zIndex?: number;
+}
+
+export interface AddLocalTileOverlayResult {
+  /**
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * @since 2.1.0
+   */
+  tileOverlayId: string;
+}
@@ -5,6 +5,13 @@ export interface AddMarkerOptions {
    * @since 2.0.0
    */
   mapId: string;
+  /**
+   * Unique id of this marker. If not given, a GUID will be generated.
+   * If a marker with the same id already exists on the map, it will be replaced.
+   *
+   * @since 2.1.0
+   */
+  markerId?: string;
   /**
    * @since 2.0.0
    */
@@ -1,6 +1,13 @@
 import { LatLng, MarkerPreferences } from "./../../definitions";
 
 export interface MarkerInputEntry {
+   /**
+    * Unique id of this marker. If not given, a GUID will be generated.
+    * If a marker with the same id already exists on the map, it will be replaced.
+    *
+    * @since 2.1.0
+    */
+   markerId?: string;
    /**
     * @since 2.0.0
     */
@@ -17,9 +24,101 @@ export interface AddMarkersOptions {
    */
   mapId: string;
   /**
+   * Either `markers` or `columns` should be given.
+   *
    * @since 2.0.0
    */
-  markers: MarkerInputEntry[];
+  markers?: MarkerInputEntry[];
+  /**
+   * (Android only)
+   * The markers as parallel arrays, instead of an object per marker (see `markers`).
+   * This is a lot faster to send and parse for big batches of markers that share a few styles.
+   * When given, `markers` is ignored.
+   *
+   * @since 2.1.0
+   */
+  columns?: MarkerColumns;
+  /**
+   * (Android only)
+   * Defines how the markers are added to the map.
+   *
+   * - `sequential`: markers are added one by one, each in its own round trip to the main thread.
+   * - `frameBudgeted`: markers are queued and added on the main thread in slices, one slice per frame.
+   * Every slice holds at most `maxMarkersPerFrame` markers, or less if adding them takes longer than `frameBudget`.
+   * This is a lot faster for big batches of markers and keeps the map responsive while they are being added.
+   *
+   * @default "sequential"
+   * @since 2.1.0
+   */
+  insertionMode?: "sequential" | "frameBudgeted";
+  /**
+   * (Android only)
+   * The maximum number of markers that are added per frame when `insertionMode` is `frameBudgeted`.
+   *
+   * @default 100
+   * @since 2.1.0
+   */
+  maxMarkersPerFrame?: number;
+  /**
+   * (Android only)
+   * The maximum time in milliseconds spent on adding markers per frame when `insertionMode` is `frameBudgeted`.
+   *
+   * @default 8
+   * @since 2.1.0
+   */
+  frameBudget?: number;
+  /**
+   * (Android only)
+   * Defines what the result contains.
+   *
+   * - `full`: every added marker (see `AddMarkersResult.markers`).
+   * - `ids-only`: only the ids of the added markers (see `AddMarkersResult.markerIds`).
+   * - `count-only`: only the number of added markers (see `AddMarkersResult.count`).
+   *
+   * The latter two are a lot cheaper for big batches of markers, since nothing has to be built and sent back per marker.
+   *
+   * @default "full"
+   * @since 2.1.0
+   */
+  resultMode?: "full" | "ids-only" | "count-only";
+}
+
+export interface MarkerColumns {
+  /**
+   * The latitude of every marker.
+   * Either an array of numbers, or a base64 string of the bytes of a `Float64Array` (little endian),
+   * which is a lot smaller and faster to decode.
+   *
+   * @since 2.1.0
+   */
+  latitudes: number[] | string;
+  /**
+   * The longitude of every marker, in the same format as `latitudes`.
+   *
+   * @since 2.1.0
+   */
+  longitudes: number[] | string;
+  /**
+   * The id of every marker. For markers without an id, a GUID will be generated.
+   *
+   * @since 2.1.0
+   */
+  markerIds?: string[];
+  /**
+   * The distinct preferences (e.g. icon, anchor and zIndex) that are shared by the markers.
+   * If not given, all markers get the default preferences.
+   *
+   * @since 2.1.0
+   */
+  styles?: MarkerPreferences[];
+  /**
+   * The index in `styles` of every marker.
+   * Either an array of numbers, or a base64 string of the bytes of an `Int32Array` (little endian).
+   * If not given, all markers use the first style.
+   *
+   * @since 2.1.0
+   */
+  styleIndices?: number[] | string;
 }
 
 export interface MarkerOutputEntry {
@@ -45,7 +144,23 @@ export interface AddMarkersResult {
    */
   mapId: string;
   /**
+   * Only given when `resultMode` is `full`.
+   *
    * @since 2.0.0
    */
-  markers: MarkerOutputEntry[];
+  markers?: MarkerOutputEntry[];
+  /**
+   * The ids of the added markers, in the order they were given.
+   * Only given when `resultMode` is `ids-only`.
+   *
+   * @since 2.1.0
+   */
+  markerIds?: string[];
+  /**
+   * The number of added markers.
+   * Only given when `resultMode` is `count-only`.
+   *
+   * @since 2.1.0
+   */
+  count?: number;
 }
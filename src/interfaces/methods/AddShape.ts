@@ -0,0 +1,113 @@
+export interface AddShapeOptions {
+  /**
+   * The identifier of the map to which this method should be applied.
+   *
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * Unique id of this shape. If not given, a GUID will be generated.
+   * If a shape with the same id already exists on the map, it will be replaced.
+   *
+   * @since 2.1.0
+   */
+  shapeId?: string;
+  /**
+   * @since 2.1.0
+   */
+  path: ShapePath;
+  /**
+   * @since 2.1.0
+   */
+  preferences?: ShapePreferences;
+}
+
+/**
+ * The full resolution path of a shape, which is kept natively.
+ * The map only shows a version of it that is simplified for the current zoom level.
+ * Either `encoded`, or `latitudes` and `longitudes` should be given.
+ */
+export interface ShapePath {
+  /**
+   * The path in the Encoded Polyline Algorithm Format, e.g. as returned by the Directions API.
+   *
+   * @since 2.1.0
+   */
+  encoded?: string;
+  /**
+   * The latitudes of the points of the path.
+   * Can also be a base64 string of the bytes of a (little endian) `Float64Array`, which is a lot faster for long paths.
+   *
+   * @since 2.1.0
+   */
+  latitudes?: number[] | string;
+  /**
+   * The longitudes of the points of the path, in the same format as `latitudes`.
+   *
+   * @since 2.1.0
+   */
+  longitudes?: number[] | string;
+}
+
+export interface ShapePreferences {
+  /**
+   * The color of the line, as `#RRGGBB` or `#AARRGGBB`.
+   *
+   * @default "#000000"
+   * @since 2.1.0
+   */
+  strokeColor?: string;
+  /**
+   * The width of the line in density independent pixels.
+   *
+   * @default 3
+   * @since 2.1.0
+   */
+  strokeWidth?: number;
+  /**
+   * (Polygons only)
+   * The color of the area, as `#RRGGBB` or `#AARRGGBB`.
+   *
+   * @default "#00000000"
+   * @since 2.1.0
+   */
+  fillColor?: string;
+  /**
+   * The stack order of this shape, relative to other shapes and tile overlays on the map.
+   *
+   * @default 0
+   * @since 2.1.0
+   */
+  zIndex?: number;
+  /**
+   * Whether the segments of the path should be drawn as geodesics (the shortest path on the surface of the earth),
+   * instead of as straight lines on the map.
+   *
+   * @default false
+   * @since 2.1.0
+   */
+  isGeodesic?: boolean;
+}
+
+export interface AddShapeResult {
+  /**
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * @since 2.1.0
+   */
+  shapeId: string;
+  /**
+   * The number of points of the full resolution path.
+   *
+   * @since 2.1.0
+   */
+  pointCount: number;
+  /**
+   * The number of points that are shown at the current zoom level.
+   *
+   * @since 2.1.0
+   */
+  shownPointCount: number;
+}
@@ -0,0 +1,55 @@
+import { CameraPosition } from "./../../definitions";
+
+export interface AnimateCameraPathOptions {
+  /**
+   * The identifier of the map to which this method should be applied.
+   *
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * The camera positions the camera should move along, starting at the current camera position.
+   *
+   * @since 2.1.0
+   */
+  keyframes: CameraKeyframe[];
+}
+
+export interface CameraKeyframe {
+  /**
+   * Properties that are not specified are taken from the previous keyframe (or the current camera position),
+   * so e.g. only the zoom can be changed.
+   *
+   * @since 2.1.0
+   */
+  cameraPosition: CameraPosition;
+  /**
+   * The duration in milliseconds of the movement from the previous keyframe to this one.
+   *
+   * @default 0
+   * @since 2.1.0
+   */
+  duration?: number;
+  /**
+   * The easing of the movement from the previous keyframe to this one.
+   *
+   * @default "ease-in-out"
+   * @since 2.1.0
+   */
+  easing?: "linear" | "ease-in" | "ease-out" | "ease-in-out";
+}
+
+export interface AnimateCameraPathResult {
+  /**
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * Whether the camera has reached the last keyframe.
+   * It is `false` when the animation has been interrupted,
+   * e.g. by a gesture of the user, `moveCamera` or another call to `animateCameraPath`.
+   *
+   * @since 2.1.0
+   */
+  finished: boolean;
+}
@@ -0,0 +1,30 @@
+export interface ConfigureDidDragMarkerOptions {
+  /**
+   * The identifier of the map to which this method should be applied.
+   *
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * The minimum time in milliseconds between two `didDragMarker` events.
+   * Drags in between are coalesced, the last one is always sent.
+   * By default an event is sent for every frame in which the marker moved.
+   *
+   * @since 2.1.0
+   */
+  minInterval?: number;
+  /**
+   * The minimum distance in (density independent) pixels the marker should have moved on screen since the previous event.
+   *
+   * @since 2.1.0
+   */
+  minDistance?: number;
+  /**
+   * Whether `didDragMarker` events should only contain the id and position of the marker (see `DidDragMarkerCompactResult`).
+   * The complete marker is still sent with `didEndDraggingMarker`.
+   *
+   * @default false
+   * @since 2.1.0
+   */
+  compactResult?: boolean;
+}
@@ -0,0 +1,24 @@
+export interface ConfigureDidMoveCameraOptions {
+  /**
+   * The identifier of the map to which this method should be applied.
+   *
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * The maximum number of `didMoveCamera` events per second.
+   * Moves in between are coalesced, the last move is always sent.
+   * By default an event is sent for every frame in which the camera moved.
+   *
+   * @since 2.1.0
+   */
+  maxEventRate?: number;
+  /**
+   * Whether each `didMoveCamera` event should contain the camera position and the visible bounds.
+   * By default events have no result.
+   *
+   * @default false
+   * @since 2.1.0
+   */
+  includeCameraPosition?: boolean;
+}
@@ -0,0 +1,19 @@
+export interface GetClusterMembersOptions {
+  /**
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * @since 2.1.0
+   */
+  clusterId: string;
+}
+
+export interface GetClusterMembersResult {
+  /**
+   * The ids of the markers in the cluster.
+   *
+   * @since 2.1.0
+   */
+  markerIds: string[];
+}
@@ -0,0 +1,32 @@
+export interface GetWorkerPoolStatsResult {
+  /**
+   * The number of threads that currently exist in the pool.
+   *
+   * @since 2.1.0
+   */
+  poolSize: number;
+  /**
+   * The maximum number of threads in the pool, which is based on the number of cores of the device.
+   *
+   * @since 2.1.0
+   */
+  maximumPoolSize: number;
+  /**
+   * The (approximate) number of threads that are currently executing a task.
+   *
+   * @since 2.1.0
+   */
+  activeCount: number;
+  /**
+   * The number of tasks waiting to be executed.
+   *
+   * @since 2.1.0
+   */
+  queueDepth: number;
+  /**
+   * The (approximate) number of tasks that have been executed since the plugin was loaded.
+   *
+   * @since 2.1.0
+   */
+  completedTaskCount: number;
+}
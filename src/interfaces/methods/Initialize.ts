@@ -7,6 +7,44 @@ export interface InitializeOptions {
    * @since 2.0.0
    */
   devicePixelRatio: number;
+  /**
+   * (Android only)
+   * While the WebView is asked whether a touch gesture started on a map (see `didRequestElementFromPoint`),
+   * the touch events of that gesture are buffered, so they can be delegated to the map afterwards.
+   * This is the maximum number of events that are buffered, besides the first one. Older events are dropped.
+   *
+   * @default 64
+   * @since 2.1.0
+   */
+  touchEventBufferSize?: number;
+  /**
+   * (Android only)
+   * The maximum time in milliseconds touch events of a gesture are buffered.
+   * When the WebView has not answered by then, the gesture is not delegated anymore.
+   *
+   * @default 1000
+   * @since 2.1.0
+   */
+  touchEventMaxAge?: number;
+  /**
+   * (Android only)
+   * Whether consecutive buffered move events should be compacted into the latest one,
+   * which reduces the number of events that are replayed on the map.
+   *
+   * @default false
+   * @since 2.1.0
+   */
+  compactTouchMoves?: boolean;
+  /**
+   * (Android only)
+   * The number of native map views that are created (and initialized) up front,
+   * and kept for reuse when a map is removed, which makes `createMap` a lot faster.
+   * Maps created while the pool is empty are created from scratch, as usual.
+   *
+   * @default 0
+   * @since 2.1.0
+   */
+  mapViewPoolSize?: number;
   /**
    * (iOS only)
    * API Key for Google Maps SDK for iOS.
@@ -0,0 +1,46 @@
+import { MarkerIcon } from "./../../definitions";
+
+export interface PreloadIconsOptions {
+  /**
+   * The icons that should be loaded into the icon cache, so markers using them can be added without waiting for them.
+   * Icons are cached by url and size, so these should be equal to the ones used by the markers.
+   *
+   * @since 2.1.0
+   */
+  icons: MarkerIcon[];
+}
+
+export interface PreloadIconsResult {
+  /**
+   * The result per icon, in the same order as the given icons.
+   *
+   * @since 2.1.0
+   */
+  icons: PreloadIconsResultEntry[];
+}
+
+export interface PreloadIconsResultEntry {
+  /**
+   * @since 2.1.0
+   */
+  url: string;
+  /**
+   * Whether the icon has been loaded successfully.
+   * Markers using an icon that could not be loaded get the default marker icon.
+   *
+   * @since 2.1.0
+   */
+  success: boolean;
+  /**
+   * The size in bytes of the decoded icon in the cache.
+   *
+   * @since 2.1.0
+   */
+  byteCount: number;
+  /**
+   * The time in milliseconds it took to load the icon.
+   *
+   * @since 2.1.0
+   */
+  duration: number;
+}
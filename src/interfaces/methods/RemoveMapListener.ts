@@ -0,0 +1,14 @@
+import { CallbackID } from "./../../definitions";
+
+export interface RemoveMapListenerOptions {
+  /**
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * The id returned when the listener was added, e.g. by `didTapMarker`.
+   *
+   * @since 2.1.0
+   */
+  callbackId: CallbackID;
+}
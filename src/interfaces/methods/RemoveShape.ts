@@ -0,0 +1,14 @@
+export interface RemoveShapeOptions {
+  /**
+   * The identifier of the map to which this method should be applied.
+   *
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * The identifier of the polyline or polygon that should be removed.
+   *
+   * @since 2.1.0
+   */
+  shapeId: string;
+}
@@ -0,0 +1,14 @@
+export interface RemoveTileOverlayOptions {
+  /**
+   * The identifier of the map to which this method should be applied.
+   *
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * The identifier of the tile overlay (e.g. a heatmap) that should be removed.
+   *
+   * @since 2.1.0
+   */
+  tileOverlayId: string;
+}
@@ -0,0 +1,29 @@
+export interface SetMarkerClusteringOptions {
+  /**
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * When enabled, markers that are close to each other (on screen) are grouped into one cluster marker, showing the number of markers in it.
+   * Clusters are recomputed natively every time the camera becomes idle.
+   *
+   * @default true
+   * @since 2.1.0
+   */
+  isEnabled?: boolean;
+  /**
+   * The size (in points) of the square grid cells in which markers are grouped.
+   *
+   * @default 60
+   * @since 2.1.0
+   */
+  gridSize?: number;
+  /**
+   * The minimum number of markers needed to form a cluster.
+   * Grid cells with less markers show their markers separately.
+   *
+   * @default 2
+   * @since 2.1.0
+   */
+  minimumClusterSize?: number;
+}
@@ -0,0 +1,59 @@
+import { MarkerInputEntry } from "./../../definitions";
+
+export interface SetMarkersOptions {
+  /**
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * The complete set of markers that should be on the map.
+   * Markers are matched by `markerId`, so each entry should have one.
+   * Markers on the map that are not part of this set are removed,
+   * markers that already exist are updated in place (only if something has changed),
+   * and the other ones are added.
+   *
+   * @since 2.1.0
+   */
+  markers: MarkerInputEntry[];
+  /**
+   * (Android only)
+   * The maximum number of new markers that are added per frame.
+   *
+   * @default 100
+   * @since 2.1.0
+   */
+  maxMarkersPerFrame?: number;
+  /**
+   * (Android only)
+   * The maximum time in milliseconds spent on adding new markers per frame.
+   *
+   * @default 8
+   * @since 2.1.0
+   */
+  frameBudget?: number;
+}
+
+export interface SetMarkersResult {
+  /**
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * The ids of the markers that have been added.
+   *
+   * @since 2.1.0
+   */
+  added: string[];
+  /**
+   * The ids of the markers that already existed, but have been changed.
+   *
+   * @since 2.1.0
+   */
+  updated: string[];
+  /**
+   * The ids of the markers that have been removed.
+   *
+   * @since 2.1.0
+   */
+  removed: string[];
+}
@@ -0,0 +1,37 @@
+import { BoundingRect } from "./../../definitions";
+
+export interface SetTouchDelegationRegionsOptions {
+  /**
+   * Whether touches should be delegated based on the given regions.
+   * When disabled, the WebView is asked which element has been touched at the start of every gesture (see `didRequestElementFromPoint`).
+   *
+   * @default true
+   * @since 2.1.0
+   */
+  isEnabled?: boolean;
+  /**
+   * The regions of the WebView in which maps are shown, e.g. by using `element.getBoundingClientRect()` on the map elements.
+   * When maps overlap, the last one is considered to be on top.
+   *
+   * @since 2.1.0
+   */
+  mapRegions?: TouchDelegationMapRegion[];
+  /**
+   * The regions of the WebView in which HTML elements are shown on top of the maps.
+   * Touches in these regions are never delegated to a map.
+   *
+   * @since 2.1.0
+   */
+  exclusionRegions?: BoundingRect[];
+}
+
+export interface TouchDelegationMapRegion {
+  /**
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * @since 2.1.0
+   */
+  boundingRect: BoundingRect;
+}
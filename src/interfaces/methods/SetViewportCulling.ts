@@ -0,0 +1,24 @@
+export interface SetViewportCullingOptions {
+  /**
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * When enabled, all markers are kept in a native spatial index,
+   * and only the markers within (or near) the visible region of the map are actually shown.
+   * The shown markers are updated every time the camera becomes idle.
+   * This keeps memory usage and rendering cost bounded by what is on screen, even for a huge number of markers.
+   *
+   * @default true
+   * @since 2.1.0
+   */
+  isEnabled?: boolean;
+  /**
+   * The visible region is extended by this factor of its size in each direction,
+   * so markers just outside of the screen are already shown while panning.
+   *
+   * @default 0.5
+   * @since 2.1.0
+   */
+  margin?: number;
+}
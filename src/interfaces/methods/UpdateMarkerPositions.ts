@@ -0,0 +1,56 @@
+export interface UpdateMarkerPositionsOptions {
+  /**
+   * The identifier of the map to which this method should be applied.
+   *
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * The ids of the markers that should be moved.
+   *
+   * @since 2.1.0
+   */
+  markerIds: string[];
+  /**
+   * The new latitude of every marker, in the same order as `markerIds`.
+   * Can also be a base64 string of the bytes of a (little endian) `Float64Array`,
+   * which is a lot smaller and faster to decode.
+   *
+   * @since 2.1.0
+   */
+  latitudes: number[] | string;
+  /**
+   * The new longitude of every marker, in the same order as `markerIds`.
+   * Can also be a base64 string of the bytes of a (little endian) `Float64Array`.
+   *
+   * @since 2.1.0
+   */
+  longitudes: number[] | string;
+  /**
+   * The duration in milliseconds in which shown markers move to their new position.
+   * Use 0 to move them at once. Ideally this matches the interval between updates.
+   *
+   * @default 1000
+   * @since 2.1.0
+   */
+  duration?: number;
+}
+
+export interface UpdateMarkerPositionsResult {
+  /**
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * The number of markers that have been moved.
+   *
+   * @since 2.1.0
+   */
+  updatedCount: number;
+  /**
+   * The given ids for which no marker exists (anymore), e.g. to add those markers instead.
+   *
+   * @since 2.1.0
+   */
+  unknownMarkerIds: string[];
+}
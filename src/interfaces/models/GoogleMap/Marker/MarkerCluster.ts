@@ -0,0 +1,29 @@
+import { LatLng } from "./../../../../definitions";
+
+export interface MarkerCluster {
+  /**
+   * GUID representing the map this cluster is part of
+   *
+   * @since 2.1.0
+   */
+  mapId: string;
+  /**
+   * Identifier of this cluster. It can be used to get the ids of the markers in this cluster with `getClusterMembers`.
+   * A cluster only exists until the clusters are recomputed (every time the camera becomes idle).
+   *
+   * @since 2.1.0
+   */
+  clusterId: string;
+  /**
+   * The average position of the markers in this cluster.
+   *
+   * @since 2.1.0
+   */
+  position: LatLng;
+  /**
+   * The number of markers in this cluster.
+   *
+   * @since 2.1.0
+   */
+  count: number;
+}
@@ -7,6 +7,10 @@ export interface MarkerIcon {
   /**
    * URL path to icon
    *
+   * (Android only) Loaded icons are cached by url and size, rendered SVG icons even across app restarts.
+   * Rendered SVG icons expire after 7 days, so an icon that changes on the server should get a new url,
+   * or `clearIconCache` should be called.
+   *
    * @since 2.0.0
    */
   url: string;
@@ -24,5 +24,14 @@ export interface MapPreferences {
 
   padding?: any; // @todo: Sets padding on the map.
 
-  liteMode?: boolean; // @todo
+  /**
+   * (Android only)
+   * Whether the map should be shown in lite mode: a bitmap of the map that is not interactive,
+   * which uses a lot less memory than a full map, e.g. for maps in a list.
+   * Can only be set when the map is created.
+   *
+   * @default false
+   * @since 2.1.0
+   */
+  liteMode?: boolean;
 }
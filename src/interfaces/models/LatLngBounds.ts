@@ -0,0 +1,15 @@
+import { LatLng } from "./../../definitions";
+
+/**
+ * A rectangular area on the map, defined by its southwest and northeast corners.
+ */
+export interface LatLngBounds {
+  /**
+   * @since 2.1.0
+   */
+  southwest: LatLng;
+  /**
+   * @since 2.1.0
+   */
+  northeast: LatLng;
+}
@@ -4,6 +4,10 @@ import {
   CapacitorGoogleMapsPlugin,
   CallbackID,
   InitializeOptions,
+  SetTouchDelegationRegionsOptions,
+  GetWorkerPoolStatsResult,
+  PreloadIconsOptions,
+  PreloadIconsResult,
   CreateMapOptions,
   CreateMapResult,
   UpdateMapOptions,
@@ -11,17 +15,39 @@ import {
   RemoveMapOptions,
   ClearMapOptions,
   MoveCameraOptions,
+  AnimateCameraPathOptions,
+  AnimateCameraPathResult,
   ElementFromPointResultOptions,
+  RemoveMapListenerOptions,
   AddMarkerOptions,
   AddMarkerResult,
   AddMarkersOptions,
   AddMarkersResult,
+  SetMarkersOptions,
+  SetMarkersResult,
   RemoveMarkerOptions,
+  UpdateMarkerPositionsOptions,
+  UpdateMarkerPositionsResult,
+  SetMarkerClusteringOptions,
+  SetViewportCullingOptions,
+  ConfigureDidMoveCameraOptions,
+  ConfigureDidDragMarkerOptions,
+  GetClusterMembersOptions,
+  GetClusterMembersResult,
+  AddShapeOptions,
+  AddShapeResult,
+  RemoveShapeOptions,
+  AddHeatmapOptions,
+  AddHeatmapResult,
+  AddLocalTileOverlayOptions,
+  AddLocalTileOverlayResult,
+  RemoveTileOverlayOptions,
   DidTapInfoWindowCallback,
   DidCloseInfoWindowCallback,
   DidTapMapCallback,
   DidLongPressMapCallback,
   DidTapMarkerCallback,
+  DidTapClusterCallback,
   DidBeginDraggingMarkerCallback,
   DidDragMarkerCallback,
   DidEndDraggingMarkerCallback,
@@ -50,6 +76,24 @@ export class CapacitorGoogleMapsWeb
     throw this.unimplemented("Not implemented on web.");
   }
 
+  async setTouchDelegationRegions(
+    _options: SetTouchDelegationRegionsOptions
+  ): Promise<void> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
+  async getWorkerPoolStats(): Promise<GetWorkerPoolStatsResult> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
+  async preloadIcons(_options: PreloadIconsOptions): Promise<PreloadIconsResult> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
+  async clearIconCache(): Promise<void> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
   async createMap(_options: CreateMapOptions): Promise<CreateMapResult> {
     throw this.unimplemented("Not implemented on web.");
   }
@@ -70,6 +114,12 @@ export class CapacitorGoogleMapsWeb
     throw this.unimplemented("Not implemented on web.");
   }
 
+  async animateCameraPath(
+    _options: AnimateCameraPathOptions
+  ): Promise<AnimateCameraPathResult> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
   async addMarker(_options: AddMarkerOptions): Promise<AddMarkerResult> {
     throw this.unimplemented("Not implemented on web.");
   }
@@ -78,10 +128,76 @@ export class CapacitorGoogleMapsWeb
     throw this.unimplemented("Not implemented on web.");
   }
 
+  async setMarkers(_options: SetMarkersOptions): Promise<SetMarkersResult> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
   async removeMarker(_options: RemoveMarkerOptions): Promise<void> {
     throw this.unimplemented("Not implemented on web.");
   }
 
+  async updateMarkerPositions(
+    _options: UpdateMarkerPositionsOptions
+  ): Promise<UpdateMarkerPositionsResult> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
+  async setMarkerClustering(
+    _options: SetMarkerClusteringOptions
+  ): Promise<void> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
+  async setViewportCulling(
+    _options: SetViewportCullingOptions
+  ): Promise<void> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
+  async configureDidMoveCamera(
+    _options: ConfigureDidMoveCameraOptions
+  ): Promise<void> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
+  async configureDidDragMarker(
+    _options: ConfigureDidDragMarkerOptions
+  ): Promise<void> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
+  async getClusterMembers(
+    _options: GetClusterMembersOptions
+  ): Promise<GetClusterMembersResult> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
+  async addPolyline(_options: AddShapeOptions): Promise<AddShapeResult> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
+  async addPolygon(_options: AddShapeOptions): Promise<AddShapeResult> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
+  async removeShape(_options: RemoveShapeOptions): Promise<void> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
+  async addHeatmap(_options: AddHeatmapOptions): Promise<AddHeatmapResult> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
+  async addLocalTileOverlay(
+    _options: AddLocalTileOverlayOptions
+  ): Promise<AddLocalTileOverlayResult> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
+  async removeTileOverlay(_options: RemoveTileOverlayOptions): Promise<void> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
   async didTapInfoWindow(
     _options: DefaultEventOptions,
     _callback: DidTapInfoWindowCallback
@@ -117,6 +233,13 @@ export class CapacitorGoogleMapsWeb
     throw this.unimplemented("Not implemented on web.");
   }
 
+  async didTapCluster(
+    _options: DefaultEventWithPreventDefaultOptions,
+    _callback: DidTapClusterCallback
+  ): Promise<CallbackID> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
   async didBeginDraggingMarker(
     _options: DefaultEventOptions,
     _callback: DidBeginDraggingMarkerCallback
@@ -180,6 +303,10 @@ export class CapacitorGoogleMapsWeb
     throw this.unimplemented("Not implemented on web.");
   }
 
+  async removeMapListener(_options: RemoveMapListenerOptions): Promise<void> {
+    throw this.unimplemented("Not implemented on web.");
+  }
+
   async elementFromPointResult(
     _options: ElementFromPointResultOptions
   ): Promise<void> {